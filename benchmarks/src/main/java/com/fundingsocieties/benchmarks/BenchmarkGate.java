@@ -0,0 +1,97 @@
+package com.fundingsocieties.benchmarks;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Run the benchmarks and compare every score with the baseline file.
+ * Exit with 1 if a benchmark is slower than its baseline by more than the tolerance.
+ * <p>
+ * System properties:
+ * <ul>
+ *     <li>benchmark.baseline: baseline file, default "baseline.properties"</li>
+ *     <li>benchmark.tolerance: allowed slow down ratio, default 0.2 (20%)</li>
+ *     <li>benchmark.updateBaseline: write the current scores as the new baseline, default false</li>
+ * </ul>
+ * All arguments are passed to JMH, e.g. "ParsingBenchmark" to only run the parsing benchmarks.
+ */
+public final class BenchmarkGate {
+
+    private BenchmarkGate() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final File baselineFile = new File(System.getProperty("benchmark.baseline", "baseline.properties"));
+        final double tolerance = Double.parseDouble(System.getProperty("benchmark.tolerance", "0.2"));
+        final boolean updateBaseline = Boolean.parseBoolean(System.getProperty("benchmark.updateBaseline", "false"));
+
+        final Collection<RunResult> results =
+                new Runner(new OptionsBuilder().parent(new CommandLineOptions(args)).build()).run();
+
+        final Properties current = new Properties();
+        for (final RunResult result : results) {
+            current.setProperty(getKey(result), String.valueOf(result.getPrimaryResult().getScore()));
+        }
+
+        if (updateBaseline || !baselineFile.exists()) {
+            try (OutputStream out = new FileOutputStream(baselineFile)) {
+                current.store(out, "Benchmark baseline, scores in the unit of each benchmark");
+            }
+            System.out.println("Baseline written to " + baselineFile.getAbsolutePath());
+            return;
+        }
+
+        final Properties baseline = new Properties();
+        try (InputStream in = new FileInputStream(baselineFile)) {
+            baseline.load(in);
+        }
+        final List<String> regressions = new ArrayList<>();
+        for (final String key : current.stringPropertyNames()) {
+            final String baselineScore = baseline.getProperty(key);
+            if (baselineScore == null) {
+                System.out.println("No baseline for " + key + ", skip");
+                continue;
+            }
+            final double expected = Double.parseDouble(baselineScore);
+            final double actual = Double.parseDouble(current.getProperty(key));
+            if (actual > expected * (1 + tolerance)) {
+                regressions.add(String.format("%s: %.3f, baseline %.3f", key, actual, expected));
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            System.err.println("Benchmark regressions:");
+            regressions.forEach(System.err::println);
+            System.exit(1);
+        }
+        System.out.println("No benchmark regression against " + baselineFile.getAbsolutePath());
+    }
+
+    /**
+     * Benchmark name with its parameters, e.g. "com...FileBenchmark.writeCsvFile[rowCount=1000]"
+     */
+    private static String getKey(final RunResult result) {
+        final StringBuilder key = new StringBuilder(result.getParams().getBenchmark());
+        final Collection<String> paramKeys = result.getParams().getParamsKeys();
+        if (!paramKeys.isEmpty()) {
+            key.append('[');
+            for (final String paramKey : paramKeys) {
+                key.append(paramKey).append('=').append(result.getParams().getParam(paramKey)).append(',');
+            }
+            key.setCharAt(key.length() - 1, ']');
+        }
+        return key.toString();
+    }
+}
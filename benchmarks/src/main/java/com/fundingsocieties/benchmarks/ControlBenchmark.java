@@ -0,0 +1,93 @@
+package com.fundingsocieties.benchmarks;
+
+import com.fundingsocieties.controls.BaseControl;
+import com.fundingsocieties.driver.DriverUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Locator resolution and composition of {@link BaseControl}, bound to a {@link StubWebDriver}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ControlBenchmark {
+    private static final int DYNAMIC_VALUE_COUNT = 100;
+
+    private BaseControl staticControl;
+    private BaseControl dynamicControl;
+    private BaseControl xpathChild;
+    private BaseControl cssChild;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final List<WebElement> noElements = Collections.emptyList();
+        DriverUtils.setDriver(new StubWebDriver(noElements, Collections.emptyList()));
+        this.staticControl = new BaseControl("css=.highcharts-markers path:not([visibility])");
+        this.dynamicControl = new BaseControl("//li[@class='nav-menu__item']/a[text()='%s']");
+        this.xpathChild = new BaseControl(new BaseControl("//div[@class='detailCaption']"), ".//font[%s]", 1);
+        this.cssChild = new BaseControl(new BaseControl("css=.tab-container"), "css=label[for='toggle-approved']");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DriverUtils.setDriver(null);
+    }
+
+    @Benchmark
+    public BaseControl newControl() {
+        return new BaseControl("css=.highcharts-legend-item > text");
+    }
+
+    @Benchmark
+    public By setDynamicValueCached() {
+        this.dynamicControl.setDynamicValue("item " + (this.counter++ % DYNAMIC_VALUE_COUNT));
+        return this.dynamicControl.getLocator();
+    }
+
+    @Benchmark
+    public By setDynamicValueUncached() {
+        this.dynamicControl.setDynamicValue("item " + this.counter++);
+        return this.dynamicControl.getLocator();
+    }
+
+    @Benchmark
+    public By getFullLocatorXpath() {
+        return this.xpathChild.getFullLocator();
+    }
+
+    @Benchmark
+    public By getFullLocatorCss() {
+        return this.cssChild.getFullLocator();
+    }
+
+    @Benchmark
+    public String getFullLocatorToString() {
+        return this.xpathChild.getFullLocator().toString();
+    }
+
+    @Benchmark
+    public int getElementsFromStub() {
+        return this.staticControl.getElements().size();
+    }
+}
@@ -0,0 +1,60 @@
+package com.fundingsocieties.benchmarks;
+
+import com.fundingsocieties.common.FileHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV export of collected chart data
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FileBenchmark {
+    @Param({"1", "1000"})
+    private int rowCount;
+
+    private File outputFile;
+    private String[] header;
+    private List<String[]> lines;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.outputFile = File.createTempFile("chart-data", ".csv");
+        this.header = new String[]{"Quarter", "Q1 2021", "Q2 2021", "Q3 2021", "Q4 2021"};
+        this.lines = new ArrayList<>();
+        for (int i = 0; i < this.rowCount; i++) {
+            this.lines.add(new String[]{"Total approved", "1,234", "2,345", "3,456", String.valueOf(i)});
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.outputFile.delete();
+    }
+
+    @Benchmark
+    public void writeCsvFile() {
+        FileHelper.writeCsvFile(this.outputFile.getPath(), this.header, this.lines);
+    }
+}
@@ -0,0 +1,56 @@
+package com.fundingsocieties.benchmarks;
+
+import com.fundingsocieties.common.CommonHelper;
+import com.fundingsocieties.model.TooltipAttr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tooltip, regex and color parsing used for every collected chart point
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParsingBenchmark {
+    private final String tooltipText = "Q4 2021● Total approved: 1,234,567";
+    private final String hexColor = "#FFB50D";
+    private final String rgbColor = "rgb(255,181,13)";
+
+    @Benchmark
+    public TooltipAttr tooltipAttrParse() {
+        return new TooltipAttr(this.tooltipText);
+    }
+
+    @Benchmark
+    public double tooltipAttrValueAsNumber() {
+        return new TooltipAttr(this.tooltipText).getValueAsNumber();
+    }
+
+    @Benchmark
+    public String commonHelperGetMatchGroup() {
+        return CommonHelper.getMatchGroup(this.tooltipText, ": ([\\d|,|\\.]+)", 1);
+    }
+
+    @Benchmark
+    public Color commonHelperHex2Rgb() {
+        return CommonHelper.hex2Rgb(this.hexColor);
+    }
+
+    @Benchmark
+    public Color commonHelperRgbFromString() {
+        return CommonHelper.rgbFromString(this.rgbColor);
+    }
+}
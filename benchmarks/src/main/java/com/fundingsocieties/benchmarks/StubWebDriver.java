@@ -0,0 +1,137 @@
+package com.fundingsocieties.benchmarks;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * WebDriver which answers every call from memory, so the control layer can be benchmarked without a browser
+ */
+public class StubWebDriver implements WebDriver, JavascriptExecutor {
+    private static final Dimension WINDOW_SIZE = new Dimension(1280, 800);
+    private final List<WebElement> elements;
+    private final Object scriptResult;
+
+    /**
+     * @param elements     elements returned by every find call
+     * @param scriptResult value returned by every script execution
+     */
+    public StubWebDriver(final List<WebElement> elements, final Object scriptResult) {
+        this.elements = elements;
+        this.scriptResult = scriptResult;
+    }
+
+    @Override
+    public void get(final String url) {
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        return "about:blank";
+    }
+
+    @Override
+    public String getTitle() {
+        return "";
+    }
+
+    @Override
+    public List<WebElement> findElements(final By by) {
+        return this.elements;
+    }
+
+    @Override
+    public WebElement findElement(final By by) {
+        if (this.elements.isEmpty()) {
+            throw new NoSuchElementException(by.toString());
+        }
+        return this.elements.get(0);
+    }
+
+    @Override
+    public String getPageSource() {
+        return "";
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void quit() {
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        return Collections.singleton("stub");
+    }
+
+    @Override
+    public String getWindowHandle() {
+        return "stub";
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        return this.noOp(TargetLocator.class);
+    }
+
+    @Override
+    public Navigation navigate() {
+        return this.noOp(Navigation.class);
+    }
+
+    @Override
+    public Options manage() {
+        return this.noOp(Options.class);
+    }
+
+    @Override
+    public Object executeScript(final String script, final Object... args) {
+        return this.scriptResult;
+    }
+
+    @Override
+    public Object executeAsyncScript(final String script, final Object... args) {
+        return this.scriptResult;
+    }
+
+    /**
+     * Implementation of the interface which does nothing: switching window or frame stays on this driver, the window
+     * has a fixed size, collections are empty and the other calls return null
+     */
+    private <T> T noOp(final Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    final Class<?> returnType = method.getReturnType();
+                    if (method.getDeclaringClass() == Object.class) {
+                        return "toString".equals(method.getName()) ? "No-op " + type.getSimpleName()
+                                : method.invoke(this, args);
+                    } else if (returnType == WebDriver.class) {
+                        return this;
+                    } else if (returnType == WebElement.class) {
+                        return this.findElement(By.tagName("body"));
+                    } else if (returnType == Dimension.class) {
+                        return WINDOW_SIZE;
+                    } else if (returnType == Point.class) {
+                        return new Point(0, 0);
+                    } else if (Set.class.isAssignableFrom(returnType)) {
+                        return Collections.emptySet();
+                    } else if (returnType == boolean.class) {
+                        return false;
+                    } else if (returnType.isInterface()) {
+                        return this.noOp(returnType);
+                    }
+                    return null;
+                }));
+    }
+}
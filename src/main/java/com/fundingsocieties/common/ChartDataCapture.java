@@ -0,0 +1,196 @@
+package com.fundingsocieties.common;
+
+import com.fundingsocieties.driver.NetworkTraffic;
+import com.fundingsocieties.enums.StatisticTab;
+import com.fundingsocieties.model.ChartDataPoint;
+import com.fundingsocieties.model.ChartDataset;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Record the JSON responses the statistics charts are rendered from, while the page loads them.
+ * Responses are matched by {@link StatisticTab#getDataUrlPattern()}, so a local stand-in server with canned
+ * responses can be used by changing the patterns.
+ * <p>
+ * The records of a response are its first list of JSON objects, depth first. The first text field of a record is
+ * the name of the chart point, e.g. the quarter, and each number field is the value of a series at that point.
+ */
+@Slf4j
+public final class ChartDataCapture implements AutoCloseable {
+    private static final Json JSON = new Json();
+
+    private final NetworkTraffic traffic;
+    private final Filter filter = this::capture;
+    private final List<ChartDataset> datasets = new ArrayList<>();
+    private final Map<StatisticTab, Pattern> urlPatterns = new EnumMap<>(StatisticTab.class);
+
+    /**
+     * @param traffic     traffic the filter is added to, null if the filter is applied by the caller
+     * @param urlPatterns pattern of the data URLs of each tab
+     */
+    ChartDataCapture(final NetworkTraffic traffic, final Map<StatisticTab, Pattern> urlPatterns) {
+        this.traffic = traffic;
+        this.urlPatterns.putAll(urlPatterns);
+    }
+
+    /**
+     * Start capturing the chart data loaded by the browser, should be started before the page is opened
+     *
+     * @param driver driver, must support DevTools, see {@link NetworkTraffic#isSupported(WebDriver)}
+     * @return the capture, close it to stop capturing
+     */
+    public static ChartDataCapture start(final WebDriver driver) {
+        final Map<StatisticTab, Pattern> urlPatterns = new EnumMap<>(StatisticTab.class);
+        for (final StatisticTab tab : StatisticTab.values()) {
+            urlPatterns.put(tab, tab.getDataUrlPattern());
+        }
+        final ChartDataCapture capture = new ChartDataCapture(NetworkTraffic.of(driver), urlPatterns);
+        capture.traffic.addFilter(capture.filter);
+        return capture;
+    }
+
+    HttpHandler capture(final HttpHandler next) {
+        return request -> {
+            final HttpResponse response = next.execute(request);
+            final StatisticTab tab = this.getTab(request);
+            if (tab != null && response.isSuccessful() && isJson(response)) {
+                //the content can only be read once, put it back for the browser
+                final byte[] body = Contents.bytes(response.getContent());
+                response.setContent(Contents.bytes(body));
+                try {
+                    final List<ChartDataPoint> points = parsePoints(new String(body, response.getContentEncoding()));
+                    synchronized (this.datasets) {
+                        this.datasets.add(new ChartDataset(tab, request.getUri(), System.currentTimeMillis(),
+                                points));
+                        this.datasets.notifyAll();
+                    }
+                    log.debug("Captured {} point(s) of {} chart data from {}", points.size(), tab, request.getUri());
+                } catch (final Exception e) {
+                    log.warn("Unable to parse {} chart data from {}: {}", tab, request.getUri(), e.getMessage());
+                }
+            }
+            return response;
+        };
+    }
+
+    /**
+     * @param json chart data response
+     * @return one point per record and number field, empty if the response has no list of JSON objects
+     */
+    static List<ChartDataPoint> parsePoints(final String json) {
+        final List<ChartDataPoint> points = new ArrayList<>();
+        final List<Map<String, Object>> records = findRecords(JSON.toType(json, Json.OBJECT_TYPE));
+        for (final Map<String, Object> record : records == null ? Collections.<Map<String, Object>>emptyList()
+                : records) {
+            final Object name = record.values().stream().filter(value -> value instanceof String).findFirst()
+                    .orElse(null);
+            if (name == null) {
+                continue;
+            }
+            for (final Map.Entry<String, Object> field : record.entrySet()) {
+                if (field.getValue() instanceof Number) {
+                    points.add(new ChartDataPoint((String) name, field.getKey(),
+                            ((Number) field.getValue()).doubleValue()));
+                }
+            }
+        }
+        return points;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> findRecords(final Object node) {
+        final Collection<?> children;
+        if (node instanceof List) {
+            final List<?> list = (List<?>) node;
+            if (!list.isEmpty() && list.stream().allMatch(item -> item instanceof Map)) {
+                return (List<Map<String, Object>>) list;
+            }
+            children = list;
+        } else if (node instanceof Map) {
+            children = ((Map<?, ?>) node).values();
+        } else {
+            return null;
+        }
+        for (final Object child : children) {
+            final List<Map<String, Object>> records = findRecords(child);
+            if (records != null) {
+                return records;
+            }
+        }
+        return null;
+    }
+
+    private StatisticTab getTab(final HttpRequest request) {
+        for (final Map.Entry<StatisticTab, Pattern> urlPattern : this.urlPatterns.entrySet()) {
+            if (urlPattern.getValue().matcher(request.getUri()).matches()) {
+                return urlPattern.getKey();
+            }
+        }
+        return null;
+    }
+
+    private static boolean isJson(final HttpResponse response) {
+        final String contentType = response.getHeader("Content-Type");
+        return contentType != null && contentType.toLowerCase().contains("json");
+    }
+
+    /**
+     * @param tab statistic tab
+     * @return datasets captured so far for the charts of the tab, in the order they arrived
+     */
+    public List<ChartDataset> getDatasets(final StatisticTab tab) {
+        final List<ChartDataset> result = new ArrayList<>();
+        synchronized (this.datasets) {
+            for (final ChartDataset dataset : this.datasets) {
+                if (dataset.getTab() == tab) {
+                    result.add(dataset);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Wait until a dataset of the tab is captured
+     *
+     * @param tab              statistic tab
+     * @param timeOutInSeconds timeout in seconds
+     * @return datasets of the tab, empty if none arrived before the timeout
+     */
+    @SneakyThrows
+    public List<ChartDataset> waitForDatasets(final StatisticTab tab, final int timeOutInSeconds) {
+        final long deadline = System.currentTimeMillis() + timeOutInSeconds * 1000L;
+        synchronized (this.datasets) {
+            List<ChartDataset> result = this.getDatasets(tab);
+            long remaining = deadline - System.currentTimeMillis();
+            while (result.isEmpty() && remaining > 0) {
+                this.datasets.wait(remaining);
+                result = this.getDatasets(tab);
+                remaining = deadline - System.currentTimeMillis();
+            }
+            return result;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (this.traffic != null) {
+            this.traffic.removeFilter(this.filter);
+        }
+    }
+}
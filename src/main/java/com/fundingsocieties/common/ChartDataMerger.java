@@ -0,0 +1,288 @@
+package com.fundingsocieties.common;
+
+import com.opencsv.CSVReader;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.json.Json;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Merge the data collected by the forks of a sharded run, see {@link Constants#FORK_NUMBER}: every file of the fork
+ * folders is merged into the file of the same name in the run folder, so there is one dataset per chart whatever the
+ * number of forks. Csv files are merged by column name, columnar files column by column. Traffic recordings are
+ * merged into {@link Constants#TRAFFIC_ARCHIVE_FILEPATH} instead, where they are replayed from. Merged files are
+ * written next to their target then moved over it, so a reader never sees a half-merged file.
+ * <p>
+ * A fork marks its folder complete once its files are closed, and incomplete again before it writes to them, see
+ * {@link #beginFork} and {@link #completeFork}. Forks merge when they complete, only the complete forks, so a merge
+ * never reads a file another fork is still writing, and the last fork to complete merges all of them.
+ * <p>
+ * Can also be run on the folder of a finished run, all forks are merged then:
+ * {@code java -cp <classpath> ChartDataMerger <run folder>}
+ */
+@Slf4j
+public final class ChartDataMerger {
+    private static final String FORK_FOLDER_PREFIX = "fork-";
+    private static final String LOCK_FILE = ".merge.lock";
+    private static final String COMPLETE_MARKER = ".complete";
+    private static final String TEMP_FILE_PREFIX = ".merging-";
+    private static final String TRAFFIC_ARCHIVE_EXTENSION = ".har";
+    private static final Json JSON = new Json();
+
+    private ChartDataMerger() {
+    }
+
+    public static void main(final String[] args) {
+        merge(new File(args.length > 0 ? args[0] : Constants.RUN_DATA_FOLDER), false);
+    }
+
+    /**
+     * Mark the fork folder incomplete before the fork writes to it, waits for a merge in progress
+     *
+     * @param forkFolder "fork-N" folder of the run folder
+     */
+    public static void beginFork(final String forkFolder) {
+        final File folder = new File(forkFolder);
+        FileHelper.createFolder(forkFolder);
+        withLock(folder.getParentFile(), () -> new File(folder, COMPLETE_MARKER).delete());
+    }
+
+    /**
+     * Mark the fork folder complete, its files must be closed
+     *
+     * @param forkFolder "fork-N" folder of the run folder
+     */
+    public static void completeFork(final String forkFolder) {
+        final File folder = new File(forkFolder);
+        FileHelper.createFolder(forkFolder);
+        withLock(folder.getParentFile(), () -> createMarker(new File(folder, COMPLETE_MARKER)));
+    }
+
+    /**
+     * Merge the complete fork folders of the run folder, under a file lock, so forks completing at the same time merge
+     * one after the other. Each merge reads all the complete forks, so the last fork to complete writes the complete
+     * dataset
+     *
+     * @param runFolder run folder, containing one "fork-N" folder per fork
+     */
+    public static void merge(final String runFolder) {
+        merge(new File(runFolder), true);
+    }
+
+    private static void merge(final File folder, final boolean completeOnly) {
+        final File[] forks = folder.listFiles(
+                file -> file.isDirectory() && file.getName().startsWith(FORK_FOLDER_PREFIX));
+        if (forks == null || forks.length == 0) {
+            log.info("No fork data to merge in {}", folder);
+            return;
+        }
+        Arrays.sort(forks, Comparator.comparingInt(ChartDataMerger::getForkNumber));
+        withLock(folder, () -> {
+            final List<File> mergedForks = new ArrayList<>();
+            final Map<String, List<File>> filesByName = new TreeMap<>();
+            for (final File fork : forks) {
+                if (completeOnly && !new File(fork, COMPLETE_MARKER).isFile()) {
+                    log.info("Fork {} is still running, skip it", fork.getName());
+                    continue;
+                }
+                mergedForks.add(fork);
+                final File[] files = fork.listFiles(file -> file.isFile() && !file.getName().startsWith("."));
+                for (final File file : files == null ? new File[0] : files) {
+                    filesByName.computeIfAbsent(file.getName(), name -> new ArrayList<>()).add(file);
+                }
+            }
+            for (final Map.Entry<String, List<File>> entry : filesByName.entrySet()) {
+                final File target = new File(folder, entry.getKey());
+                if (entry.getKey().endsWith(ColumnarFile.EXTENSION)) {
+                    mergeColumnar(target, entry.getValue());
+                } else if (entry.getKey().endsWith(TRAFFIC_ARCHIVE_EXTENSION)) {
+                    mergeTrafficArchives(new File(Constants.TRAFFIC_ARCHIVE_FILEPATH), entry.getValue());
+                } else {
+                    mergeCsv(target, entry.getValue());
+                }
+            }
+            log.info("Merged {} file(s) of {} fork(s) into {}", filesByName.size(), mergedForks.size(), folder);
+            return null;
+        });
+    }
+
+    /**
+     * Rows of all files under the union of their headers, a column missing from a file is left empty.
+     * Rows are streamed, gzip files stay compressed
+     */
+    @SneakyThrows
+    private static void mergeCsv(final File target, final List<File> files) {
+        final List<String> header = new ArrayList<>();
+        for (final File file : files) {
+            try (CSVReader reader = new CSVReader(openReader(file))) {
+                final String[] fileHeader = reader.readNext();
+                for (final String column : fileHeader == null ? new String[0] : fileHeader) {
+                    if (!header.contains(column)) {
+                        header.add(column);
+                    }
+                }
+            }
+        }
+        writeAtomically(target, temp -> {
+            try (CsvSink sink = CsvSink.open(temp.getPath(), header.toArray(new String[0]), false, 0)) {
+                writeCsvRows(sink, header, files);
+            }
+        });
+    }
+
+    @SneakyThrows
+    private static void writeCsvRows(final CsvSink sink, final List<String> header, final List<File> files) {
+        for (final File file : files) {
+            try (CSVReader reader = new CSVReader(openReader(file))) {
+                final String[] fileHeader = reader.readNext();
+                if (fileHeader == null) {
+                    continue;
+                }
+                final int[] targetIndexes = new int[fileHeader.length];
+                for (int i = 0; i < fileHeader.length; i++) {
+                    targetIndexes[i] = header.indexOf(fileHeader[i]);
+                }
+                String[] line;
+                while ((line = reader.readNext()) != null) {
+                    final String[] row = new String[header.size()];
+                    Arrays.fill(row, "");
+                    for (int i = 0; i < Math.min(line.length, targetIndexes.length); i++) {
+                        row[targetIndexes[i]] = line[i];
+                    }
+                    sink.writeRow(row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rows of all files with the columns of the first one, files with other columns are skipped.
+     * Rows are copied from the mapped files, not loaded on the heap
+     */
+    private static void mergeColumnar(final File target, final List<File> files) {
+        final List<ColumnarFile> parts = new ArrayList<>();
+        for (final File file : files) {
+            final ColumnarFile part = ColumnarFile.open(file.getPath());
+            if (!parts.isEmpty() && !part.getColumnNames().equals(parts.get(0).getColumnNames())) {
+                log.warn("Columns of {} don't match the other forks, skip it", file);
+                continue;
+            }
+            parts.add(part);
+        }
+        writeAtomically(target, temp -> ColumnarFile.concat(temp.getPath(), parts));
+    }
+
+    /**
+     * Write the file next to the target then move it over the target, the target is left as is if the write fails
+     *
+     * @param target file to write
+     * @param write  writes the given file, named like the target so its format is the same
+     */
+    @SneakyThrows
+    private static void writeAtomically(final File target, final Consumer<File> write) {
+        final File temp = new File(target.getAbsoluteFile().getParentFile(), TEMP_FILE_PREFIX + target.getName());
+        try {
+            write.accept(temp);
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    /**
+     * Run the action under the lock of the run folder, shared by the forks
+     */
+    @SneakyThrows
+    private static <T> T withLock(final File runFolder, final Supplier<T> action) {
+        try (FileChannel channel = FileChannel.open(new File(runFolder, LOCK_FILE).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            final FileLock lock = channel.lock();
+            try {
+                return action.get();
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    @SneakyThrows
+    private static boolean createMarker(final File marker) {
+        return marker.createNewFile();
+    }
+
+    /**
+     * Entries of all archives, fork after fork, so the requests recorded many times keep the order of each fork
+     */
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    private static void mergeTrafficArchives(final File target, final List<File> files) {
+        Map<String, Object> harLog = null;
+        final List<Object> entries = new ArrayList<>();
+        for (final File file : files) {
+            try (Reader reader = openReader(file)) {
+                final Map<String, Object> har = JSON.toType(reader, Json.MAP_TYPE);
+                final Map<String, Object> fileLog = (Map<String, Object>) har.get("log");
+                entries.addAll((List<Object>) fileLog.get("entries"));
+                if (harLog == null) {
+                    harLog = new LinkedHashMap<>(fileLog);
+                }
+            }
+        }
+        harLog.put("entries", entries);
+        if (target.getParentFile() != null) {
+            target.getParentFile().mkdirs();
+        }
+        final Map<String, Object> har = Collections.singletonMap("log", harLog);
+        writeAtomically(target, temp -> writeJson(temp, har));
+        log.info("Merged {} request(s) of {} traffic recording(s) into {}", entries.size(), files.size(), target);
+    }
+
+    @SneakyThrows
+    private static void writeJson(final File file, final Object value) {
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(JSON.toJson(value));
+        }
+    }
+
+    @SneakyThrows
+    private static Reader openReader(final File file) {
+        InputStream in = new FileInputStream(file);
+        if (file.getName().endsWith(".gz")) {
+            in = new GZIPInputStream(in);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    private static int getForkNumber(final File forkFolder) {
+        try {
+            return Integer.parseInt(forkFolder.getName().substring(FORK_FOLDER_PREFIX.length()));
+        } catch (final NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+}
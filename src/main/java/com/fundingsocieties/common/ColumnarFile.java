@@ -0,0 +1,330 @@
+package com.fundingsocieties.common;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.SneakyThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compact typed columnar file, so collected data can be memory-mapped and scanned without parsing text.
+ * <p>
+ * Layout, little-endian, every block starts at a multiple of 8 bytes:
+ * <pre>
+ * magic "FSCOL1\0\0" | int32 column count | int32 row count
+ * per column: int32 name length | name UTF-8 | int8 type (0 double, 1 string)   (padded)
+ * per column data:
+ *   double column: row count float64                                          (padded)
+ *   string column: (row count + 1) int32 offsets | UTF-8 bytes                (each padded)
+ * </pre>
+ * A null double is stored as NaN, a null string as an empty string.
+ */
+public final class ColumnarFile {
+    public static final String EXTENSION = ".fscol";
+    private static final byte[] MAGIC = "FSCOL1\0\0".getBytes(StandardCharsets.US_ASCII);
+    private static final byte TYPE_DOUBLE = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    @Getter
+    private final List<String> columnNames;
+    @Getter
+    private final int rowCount;
+    private final byte[] types;
+    private final int[] dataPositions;
+    private final MappedByteBuffer buffer;
+
+    private ColumnarFile(final MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        final byte[] magic = new byte[MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IllegalArgumentException("Not a columnar file");
+        }
+        final int columnCount = buffer.getInt();
+        this.rowCount = buffer.getInt();
+        final List<String> names = new ArrayList<>(columnCount);
+        this.types = new byte[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            final byte[] name = new byte[buffer.getInt()];
+            buffer.get(name);
+            names.add(new String(name, StandardCharsets.UTF_8));
+            this.types[i] = buffer.get();
+            buffer.position(align(buffer.position()));
+        }
+        this.columnNames = Collections.unmodifiableList(names);
+        this.dataPositions = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            this.dataPositions[i] = buffer.position();
+            if (this.types[i] == TYPE_DOUBLE) {
+                buffer.position(align(buffer.position() + this.rowCount * Double.BYTES));
+            } else {
+                final int bytesPosition = align(buffer.position() + (this.rowCount + 1) * Integer.BYTES);
+                final int byteCount = buffer.getInt(buffer.position() + this.rowCount * Integer.BYTES);
+                buffer.position(align(bytesPosition + byteCount));
+            }
+        }
+    }
+
+    /**
+     * Memory-map a columnar file
+     *
+     * @param filePath file path
+     * @return file to read the columns from
+     */
+    @SneakyThrows
+    public static ColumnarFile open(final String filePath) {
+        try (FileChannel channel = FileChannel.open(new File(filePath).toPath(), StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return new ColumnarFile(buffer);
+        }
+    }
+
+    @SneakyThrows
+    public static void write(final String filePath, final Column... columns) {
+        final int rowCount = columns.length == 0 ? 0 : columns[0].size();
+        int size = MAGIC.length + 2 * Integer.BYTES;
+        final List<byte[]> names = new ArrayList<>();
+        final List<byte[][]> strings = new ArrayList<>();
+        for (final Column column : columns) {
+            if (column.size() != rowCount) {
+                throw new IllegalArgumentException(String.format("Column '%s' has %s rows, expected %s",
+                        column.name, column.size(), rowCount));
+            }
+            final byte[] name = column.name.getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            size = align(size + Integer.BYTES + name.length + 1);
+        }
+        for (final Column column : columns) {
+            if (column.doubles != null) {
+                strings.add(null);
+                size = align(size + rowCount * Double.BYTES);
+            } else {
+                final byte[][] values = new byte[rowCount][];
+                int byteCount = 0;
+                for (int i = 0; i < rowCount; i++) {
+                    values[i] = column.strings[i] == null ? new byte[0]
+                            : column.strings[i].getBytes(StandardCharsets.UTF_8);
+                    byteCount += values[i].length;
+                }
+                strings.add(values);
+                size = align(align(size + (rowCount + 1) * Integer.BYTES) + byteCount);
+            }
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(MAGIC).putInt(columns.length).putInt(rowCount);
+        for (int i = 0; i < columns.length; i++) {
+            buffer.putInt(names.get(i).length).put(names.get(i))
+                    .put(columns[i].doubles != null ? TYPE_DOUBLE : TYPE_STRING);
+            buffer.position(align(buffer.position()));
+        }
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].doubles != null) {
+                for (final double value : columns[i].doubles) {
+                    buffer.putDouble(value);
+                }
+            } else {
+                int offset = 0;
+                for (final byte[] value : strings.get(i)) {
+                    buffer.putInt(offset);
+                    offset += value.length;
+                }
+                buffer.putInt(offset);
+                buffer.position(align(buffer.position()));
+                for (final byte[] value : strings.get(i)) {
+                    buffer.put(value);
+                }
+            }
+            buffer.position(align(buffer.position()));
+        }
+        buffer.flip();
+        writeFully(filePath, buffer);
+    }
+
+    /**
+     * Write the rows of all the files one after the other, copied block by block from the mapped files so the rows are
+     * never loaded on the heap
+     *
+     * @param filePath file path
+     * @param parts    files with the same columns
+     */
+    @SneakyThrows
+    public static void concat(final String filePath, final List<ColumnarFile> parts) {
+        final ColumnarFile first = parts.get(0);
+        int rowCount = 0;
+        for (final ColumnarFile part : parts) {
+            if (!part.columnNames.equals(first.columnNames) || !Arrays.equals(part.types, first.types)) {
+                throw new IllegalArgumentException("Columns don't match: " + part.columnNames);
+            }
+            rowCount += part.rowCount;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(new File(filePath).toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.put(MAGIC).putInt(first.columnNames.size()).putInt(rowCount);
+            for (int i = 0; i < first.columnNames.size(); i++) {
+                final byte[] name = first.columnNames.get(i).getBytes(StandardCharsets.UTF_8);
+                flushIfFull(channel, buffer, align(Integer.BYTES + name.length + 1));
+                buffer.putInt(name.length).put(name).put(first.types[i]);
+                buffer.position(align(buffer.position()));
+            }
+            flush(channel, buffer);
+            for (int c = 0; c < first.columnNames.size(); c++) {
+                if (first.types[c] == TYPE_DOUBLE) {
+                    for (final ColumnarFile part : parts) {
+                        writeFully(channel, part.slice(part.dataPositions[c], part.rowCount * Double.BYTES));
+                    }
+                } else {
+                    int offset = 0;
+                    for (final ColumnarFile part : parts) {
+                        final IntBuffer offsets = part.slice(part.dataPositions[c],
+                                (part.rowCount + 1) * Integer.BYTES).asIntBuffer();
+                        for (int i = 0; i < part.rowCount; i++) {
+                            flushIfFull(channel, buffer, Integer.BYTES);
+                            buffer.putInt(offset + offsets.get(i));
+                        }
+                        offset += offsets.get(part.rowCount);
+                    }
+                    flushIfFull(channel, buffer, Integer.BYTES);
+                    buffer.putInt(offset);
+                    flush(channel, buffer);
+                    pad(channel, buffer);
+                    for (final ColumnarFile part : parts) {
+                        final int offsetsPosition = part.dataPositions[c];
+                        final int bytesPosition = align(offsetsPosition + (part.rowCount + 1) * Integer.BYTES);
+                        writeFully(channel, part.slice(bytesPosition,
+                                part.buffer.getInt(offsetsPosition + part.rowCount * Integer.BYTES)));
+                    }
+                }
+                pad(channel, buffer);
+            }
+        }
+    }
+
+    private static void flushIfFull(final FileChannel channel, final ByteBuffer buffer, final int needed)
+            throws IOException {
+        if (buffer.remaining() < needed) {
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        writeFully(channel, buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Pad the file to the next multiple of 8 bytes, the buffer must be empty
+     */
+    private static void pad(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        final long position = channel.position();
+        buffer.put(new byte[(int) (align((int) position) - position)]);
+        flush(channel, buffer);
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void writeFully(final String filePath, final ByteBuffer buffer) throws IOException {
+        try (FileChannel channel = FileChannel.open(new File(filePath).toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static int align(final int position) {
+        return (position + 7) & ~7;
+    }
+
+    public int getColumnIndex(final String name) {
+        final int index = this.columnNames.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("Column not found: " + name);
+        }
+        return index;
+    }
+
+    public boolean isDoubleColumn(final String name) {
+        return this.types[this.getColumnIndex(name)] == TYPE_DOUBLE;
+    }
+
+    /**
+     * View of a double column on the mapped file, nothing is copied
+     *
+     * @param name column name
+     * @return column values
+     */
+    public DoubleBuffer getDoubleColumn(final String name) {
+        final int index = this.getColumnIndex(name);
+        if (this.types[index] != TYPE_DOUBLE) {
+            throw new IllegalArgumentException("Not a double column: " + name);
+        }
+        return this.slice(this.dataPositions[index], this.rowCount * Double.BYTES).asDoubleBuffer();
+    }
+
+    public String getString(final String name, final int row) {
+        final int index = this.getColumnIndex(name);
+        if (this.types[index] != TYPE_STRING) {
+            throw new IllegalArgumentException("Not a string column: " + name);
+        }
+        final IntBuffer offsets = this.slice(this.dataPositions[index], (this.rowCount + 1) * Integer.BYTES)
+                .asIntBuffer();
+        final int bytesPosition = align(this.dataPositions[index] + (this.rowCount + 1) * Integer.BYTES);
+        final int start = offsets.get(row);
+        final byte[] value = new byte[offsets.get(row + 1) - start];
+        final ByteBuffer bytes = this.buffer.duplicate();
+        bytes.position(bytesPosition + start);
+        bytes.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private ByteBuffer slice(final int position, final int length) {
+        final ByteBuffer slice = this.buffer.duplicate();
+        slice.position(position).limit(position + length);
+        return slice.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Column to write, all the columns of a file must have the same size
+     */
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Column {
+        private final String name;
+        private final double[] doubles;
+        private final String[] strings;
+
+        public static Column doubles(final String name, final double[] values) {
+            return new Column(name, values, null);
+        }
+
+        public static Column strings(final String name, final String[] values) {
+            return new Column(name, null, values);
+        }
+
+        private int size() {
+            return this.doubles != null ? this.doubles.length : this.strings.length;
+        }
+    }
+}
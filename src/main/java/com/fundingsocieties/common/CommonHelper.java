@@ -3,6 +3,8 @@ package com.fundingsocieties.common;
 import lombok.SneakyThrows;
 
 import java.awt.Color;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -29,6 +31,34 @@ public class CommonHelper {
         return r.matcher(input);
     }
 
+    /**
+     * Parse a formatted number, grouping separators, currency symbols and units are ignored.
+     * A decimal separator found more than once is a grouping separator, e.g. "1.234.567" in {@link Locale#US}
+     *
+     * @param value  e.g. "1,234.56", "S$1,234" or "-12.5%", the sign can also be a minus sign U+2212
+     * @param locale locale of the number format, e.g. {@link Locale#GERMANY} for "1.234,56"
+     * @return parsed number, NaN if the value has no digit
+     */
+    public static double parseNumber(final String value, final Locale locale) {
+        final char decimalSeparator = DecimalFormatSymbols.getInstance(locale).getDecimalSeparator();
+        final boolean hasDecimalSeparator = value.indexOf(decimalSeparator) >= 0
+                && value.indexOf(decimalSeparator) == value.lastIndexOf(decimalSeparator);
+        final StringBuilder number = new StringBuilder(value.length());
+        boolean hasDigit = false;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                number.append(c);
+                hasDigit = true;
+            } else if (c == decimalSeparator && hasDecimalSeparator) {
+                number.append('.');
+            } else if ((c == '-' || c == '\u2212') && !hasDigit) {
+                number.append('-');
+            }
+        }
+        return hasDigit ? Double.parseDouble(number.toString()) : Double.NaN;
+    }
+
     @SneakyThrows
     public static void sleep(final int timeInSeconds) {
         Thread.sleep(timeInSeconds * 1000L);
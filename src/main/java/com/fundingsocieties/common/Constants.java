@@ -1,16 +1,140 @@
 package com.fundingsocieties.common;
 
+import com.fundingsocieties.enums.ExportFormat;
+import com.fundingsocieties.enums.SessionMode;
+import com.fundingsocieties.enums.TrafficMode;
+
+import java.io.File;
+
 public class Constants {
     public static final int LOW_TIMEOUT_IN_SECONDS = 2;
     public static final int MEDIUM_TIMEOUT_IN_SECONDS = 5;
     public static final int DEFAULT_TIME_WAIT = 10;
+    public static final int SCRIPT_TIMEOUT_IN_SECONDS = 30;
+    public static final int DRIVER_POOL_SIZE = 4;
+    public static final int DRIVER_POOL_MAX_USES = 10;
+    /**
+     * How long a checkout waits for a returned session before trying to start a browser again
+     */
+    public static final int DRIVER_POOL_POLL_INTERVAL_IN_MILLIS = 500;
+    /**
+     * -DsessionMode=context to run the tests in browser contexts of shared browsers instead of a browser each
+     */
+    public static final SessionMode SESSION_MODE =
+            SessionMode.valueOf(System.getProperty("sessionMode", "pool").toUpperCase());
+    /**
+     * Browser contexts sharing a browser in context session mode, -DcontextsPerBrowser to change it
+     */
+    public static final int CONTEXTS_PER_BROWSER = Integer.getInteger("contextsPerBrowser", 8);
+    /**
+     * Where driver binaries are downloaded and indexed, -DdriverCache to change it
+     */
+    public static final String DRIVER_CACHE_FOLDER = System.getProperty("driverCache",
+            System.getProperty("user.home") + "/.cache/fundingsocieties-drivers");
+    /**
+     * -DdriverOffline=true to only use cached driver binaries and never touch the network
+     */
+    public static final boolean DRIVER_OFFLINE = Boolean.getBoolean("driverOffline");
+    public static final String INSTALLED_BROWSER_VERSION = "installed";
+    /**
+     * Browser version the driver binary is resolved for, -DbrowserVersion to pin it
+     */
+    public static final String BROWSER_VERSION = System.getProperty("browserVersion", INSTALLED_BROWSER_VERSION);
     public static final String TEST_RESULT_FOLDER = "test-results";
-    public static final String COLLECTED_DATA_FOLDER = String.format("%s/funding-collected-data/%s", TEST_RESULT_FOLDER,
+    /**
+     * Id of the run, -DrunId to share it between the surefire forks of a build
+     */
+    public static final String RUN_TIME = System.getProperty("runId",
             DateTimeHelper.getCurrentTime("MM-dd-yyyy H-mm-ss"));
+    /**
+     * Number of the surefire fork running the tests, set by the sharded profile, null when the tests are not sharded
+     */
+    public static final String FORK_NUMBER = System.getProperty("forkNumber");
+    /**
+     * Collected data of the run, the data of the forks is merged here, see {@link ChartDataMerger}
+     */
+    public static final String RUN_DATA_FOLDER = String.format("%s/funding-collected-data/%s", TEST_RESULT_FOLDER,
+            RUN_TIME);
+    public static final String COLLECTED_DATA_FOLDER = FORK_NUMBER == null ? RUN_DATA_FOLDER
+            : String.format("%s/fork-%s", RUN_DATA_FOLDER, FORK_NUMBER);
+    /**
+     * Latency summary of the WebDriver commands of each test, -DcommandTimings=false to stop timing the commands
+     */
+    public static final String COMMAND_TIMINGS_FOLDER = String.format("%s/command-timings/%s", TEST_RESULT_FOLDER,
+            RUN_TIME);
+    public static final boolean COMMAND_TIMINGS_ENABLED =
+            Boolean.parseBoolean(System.getProperty("commandTimings", "true"));
+    /**
+     * Stale element retries: attempts including the first one, time budget and backoff bounds of the jittered backoff
+     */
+    public static final int STALE_RETRY_MAX_ATTEMPTS = 5;
+    public static final long STALE_RETRY_TIME_BUDGET_IN_MILLIS = 3000;
+    public static final long STALE_RETRY_BACKOFF_IN_MILLIS = 50;
+    public static final long STALE_RETRY_MAX_BACKOFF_IN_MILLIS = 500;
+    /**
+     * Retries of the run and the time they cost, per locator and action
+     */
+    public static final String RETRY_STATS_FILEPATH = String.format("%s/retry-stats/%s%s.csv", TEST_RESULT_FOLDER,
+            RUN_TIME, FORK_NUMBER == null ? "" : " fork-" + FORK_NUMBER);
+    /**
+     * Duration of each test in the previous runs, to run the longest tests first, -DtestDurations to change it
+     */
+    public static final String TEST_DURATIONS_FILEPATH = System.getProperty("testDurations",
+            TEST_RESULT_FOLDER + "/test-durations.properties");
+    /**
+     * Weight of the last run in the moving average of a test duration
+     */
+    public static final double TEST_DURATION_SMOOTHING = 0.3;
+    /**
+     * Same warning logged at most once per window, see {@link LogHelper#warnThrottled}
+     */
+    public static final long LOG_THROTTLE_WINDOW_IN_MILLIS = 10000;
+    /**
+     * Number of distinct warnings tracked by {@link LogHelper#warnThrottled}, the expired ones are dropped beyond it
+     */
+    public static final int LOG_THROTTLE_MAX_WARNINGS = 1000;
+    /**
+     * Disable the chart animations and signal the chart renders, -DchartRenderHook=false to keep the page as is
+     */
+    public static final boolean CHART_RENDER_HOOK_ENABLED =
+            Boolean.parseBoolean(System.getProperty("chartRenderHook", "true"));
+    /**
+     * How long an action may take to start redrawing the charts, before they are considered rendered as they are
+     */
+    public static final long CHART_RENDER_GRACE_IN_MILLIS = 1000;
+    /**
+     * How long a harvested point may take to show its tooltip before it is skipped
+     */
+    public static final long TOOLTIP_HARVEST_POINT_TIMEOUT_IN_MILLIS = 1000;
     public static final String STATISTIC_DETAILS_FILEPATH = COLLECTED_DATA_FOLDER + "/statistic-details.csv";
     public static final String FUNDING_APPROVED_FILEPATH = COLLECTED_DATA_FOLDER + "/funding-approved.csv";
     public static final String AMOUNT_DISBURSED_FILEPATH = COLLECTED_DATA_FOLDER + "/amount-disbursed.csv";
     public static final String DEFAULT_RATE_FILEPATH = COLLECTED_DATA_FOLDER + "/default-rate.csv";
     public static final String REPAYMENT_FILEPATH = COLLECTED_DATA_FOLDER + "/repayment.csv";
     public static final String INDUSTRY_DATA_FILEPATH = COLLECTED_DATA_FOLDER + "/industries.csv";
+    /**
+     * Every collected chart point, one per row. Gzip compressed with -DchartPoints.gzip=true
+     */
+    public static final String CHART_POINTS_FILEPATH = COLLECTED_DATA_FOLDER + "/chart-points.csv"
+            + (Boolean.getBoolean("chartPoints.gzip") ? ".gz" : "");
+    public static final int CSV_SINK_FLUSH_ROWS = 50;
+    /**
+     * -Dtraffic=record to save the traffic of the run to {@link #TRAFFIC_ARCHIVE_FILEPATH}, -Dtraffic=replay to serve
+     * the browsers from it
+     */
+    public static final TrafficMode TRAFFIC_MODE =
+            TrafficMode.valueOf(System.getProperty("traffic", "live").toUpperCase());
+    public static final String TRAFFIC_ARCHIVE_FILEPATH = System.getProperty("trafficArchive",
+            TEST_RESULT_FOLDER + "/traffic.har");
+    /**
+     * Where the traffic of this JVM is recorded: the archive itself, or the fork folder when the tests are sharded, the
+     * recordings of the forks are merged into the archive then, see {@link ChartDataMerger}
+     */
+    public static final String TRAFFIC_RECORDING_FILEPATH = FORK_NUMBER == null ? TRAFFIC_ARCHIVE_FILEPATH
+            : COLLECTED_DATA_FOLDER + "/" + new File(TRAFFIC_ARCHIVE_FILEPATH).getName();
+    /**
+     * Format of the chart exports, -DexportFormat=columnar to write {@link ColumnarFile}s
+     */
+    public static final ExportFormat EXPORT_FORMAT =
+            ExportFormat.valueOf(System.getProperty("exportFormat", "csv").toUpperCase());
 }
@@ -0,0 +1,131 @@
+package com.fundingsocieties.common;
+
+import com.opencsv.CSVWriter;
+import lombok.Getter;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CSV file which stays open for the whole suite, rows are written through a buffer as soon as they are collected
+ * instead of being kept in memory until the chart is done.
+ * Sinks are shared by file path and are safe to use from parallel workers.
+ */
+@Slf4j
+public final class CsvSink implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Map<String, CsvSink> OPEN_SINKS = new ConcurrentHashMap<>();
+
+    @Getter
+    private final String filePath;
+    private final CSVWriter writer;
+    private final int flushEveryRows;
+    private int pendingRows;
+    private long rowCount;
+    private boolean closed;
+
+    private CsvSink(final String filePath, final String[] header, final boolean append, final boolean gzip,
+                    final int flushEveryRows) {
+        this.filePath = filePath;
+        this.flushEveryRows = flushEveryRows;
+        this.writer = openWriter(filePath, header, append, gzip);
+    }
+
+    /**
+     * Get the open sink of the file, or open it.
+     * If the file name ends with ".gz" the rows are gzip compressed, appending to a gzip file adds a new gzip member
+     * which is still read as one stream by gzip tools.
+     *
+     * @param filePath       file path
+     * @param header         header, only written when the file is new or not appended
+     * @param append         true to keep the rows of the existing file
+     * @param flushEveryRows flush the buffer to the file every given rows, 0 to only flush on close
+     * @return the sink of the file
+     */
+    public static CsvSink open(final String filePath, final String[] header, final boolean append,
+                               final int flushEveryRows) {
+        final String key = new File(filePath).getAbsolutePath();
+        return OPEN_SINKS.computeIfAbsent(key,
+                k -> new CsvSink(filePath, header, append, filePath.endsWith(".gz"), flushEveryRows));
+    }
+
+    /**
+     * Close all the open sinks, should be called at the end of the suite
+     */
+    public static void closeAll() {
+        for (final CsvSink sink : new ArrayList<>(OPEN_SINKS.values())) {
+            sink.close();
+        }
+    }
+
+    @SneakyThrows
+    private static CSVWriter openWriter(final String filePath, final String[] header, final boolean append,
+                                        final boolean gzip) {
+        final File file = new File(filePath);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        final boolean writeHeader = !append || file.length() == 0;
+        OutputStream out = new FileOutputStream(file, append);
+        if (gzip) {
+            //sync flush, so the rows flushed so far can be read from the file before it is closed
+            out = new GZIPOutputStream(out, BUFFER_SIZE, true);
+        }
+        final CSVWriter writer = new CSVWriter(
+                new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE));
+        if (writeHeader && header != null) {
+            writer.writeNext(header);
+        }
+        return writer;
+    }
+
+    public synchronized void writeRow(final String... row) {
+        if (this.closed) {
+            throw new IllegalStateException("CSV sink is closed: " + this.filePath);
+        }
+        this.writer.writeNext(row);
+        this.rowCount++;
+        if (this.flushEveryRows > 0 && ++this.pendingRows >= this.flushEveryRows) {
+            this.flush();
+        }
+    }
+
+    public synchronized void writeRows(final List<String[]> rows) {
+        for (final String[] row : rows) {
+            this.writeRow(row);
+        }
+    }
+
+    @SneakyThrows
+    public synchronized void flush() {
+        this.writer.flush();
+        this.pendingRows = 0;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        OPEN_SINKS.remove(new File(this.filePath).getAbsolutePath(), this);
+        try {
+            this.writer.close();
+            log.info("Closed CSV sink '{}' with {} row(s)", this.filePath, this.rowCount);
+        } catch (final Exception e) {
+            log.error("Exception occurred when closing CSV sink '{}': {}", this.filePath, e);
+        }
+    }
+}
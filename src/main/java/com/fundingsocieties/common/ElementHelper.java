@@ -1,6 +1,7 @@
 package com.fundingsocieties.common;
 
 import com.fundingsocieties.driver.DriverUtils;
+import org.openqa.selenium.Point;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
 
@@ -13,4 +14,15 @@ public class ElementHelper {
         final Actions actions = new Actions(DriverUtils.getDriver());
         actions.moveToElement(element).build().perform();
     }
+
+    /**
+     * Move the mouse to an offset from the in-view center of the element
+     *
+     * @param element element
+     * @param offset  offset from the in-view center of the element
+     */
+    public static void moveTo(final WebElement element, final Point offset) {
+        final Actions actions = new Actions(DriverUtils.getDriver());
+        actions.moveToElement(element, offset.getX(), offset.getY()).build().perform();
+    }
 }
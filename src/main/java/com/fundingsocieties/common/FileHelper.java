@@ -4,6 +4,7 @@ import com.opencsv.CSVWriter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.util.List;
@@ -18,16 +19,16 @@ public final class FileHelper {
         new File(folderPath).mkdirs();
     }
 
+    /**
+     * Write the whole file at once, use {@link CsvSink} to write rows while they are collected
+     */
     @SneakyThrows
     public static void writeCsvFile(final String filePath, final String[] header, final List<String[]> lines) {
-        final File file = new File(filePath);
-        final FileWriter outputFile = new FileWriter(file);
-        final CSVWriter writer = new CSVWriter(outputFile);
-
-        writer.writeNext(header);
-        for (final String[] line : lines) {
-            writer.writeNext(line);
+        try (CSVWriter writer = new CSVWriter(new BufferedWriter(new FileWriter(new File(filePath))))) {
+            writer.writeNext(header);
+            for (final String[] line : lines) {
+                writer.writeNext(line);
+            }
         }
-        writer.close();
     }
 }
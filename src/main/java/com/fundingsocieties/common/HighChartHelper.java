@@ -0,0 +1,326 @@
+package com.fundingsocieties.common;
+
+import com.fundingsocieties.driver.DriverUtils;
+import com.fundingsocieties.model.HighChartColumnSeriesAttr;
+import com.fundingsocieties.model.TooltipAttr;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class HighChartHelper {
+    public static final String[] LINE_SERIES_TYPES = {"line", "spline", "area", "areaspline"};
+    public static final String[] COLUMN_SERIES_TYPES = {"column", "bar"};
+    public static final String[] PIE_SERIES_TYPES = {"pie"};
+
+    /**
+     * Collect every visible point of the displayed charts, formatted by the chart's own tooltip formatter,
+     * so the text is the same as the one rendered when hovering the point
+     */
+    private static final String GET_POINTS_SCRIPT = "var types=arguments[0],result=[];"
+            + "if(!window.Highcharts){return result;}"
+            + "function toText(html){var d=document.createElement('div');"
+            + "d.innerHTML=String(html).replace(/<br\\s*\\/?>/gi,'');return d.textContent;}"
+            + "Highcharts.charts.forEach(function(chart){"
+            + "if(!chart||!chart.renderTo||chart.renderTo.offsetParent===null){return;}"
+            + "var tooltip=chart.tooltip;if(!tooltip){return;}"
+            + "var formatter=tooltip.options.formatter||tooltip.defaultFormatter;"
+            + "chart.series.forEach(function(series){"
+            + "if(!series.visible||types.indexOf(series.type)<0){return;}"
+            + "series.points.forEach(function(point){"
+            + "if(point.isNull||point.visible===false){return;}"
+            + "var text=formatter.call(point.getLabelConfig(),tooltip);"
+            + "if(Array.isArray(text)){text=text.join('');}"
+            + "var fill=point.graphic&&point.graphic.element.getAttribute('fill');"
+            + "result.push({tooltip:toText(text),color:fill||point.color});"
+            + "});});});"
+            + "return result;";
+
+    /**
+     * Hover every visible point of the displayed charts in turn with synthetic pointer events, the way a mouse would,
+     * and read the tooltip once its text differs from the one of the previous point, watched by a MutationObserver so
+     * it doesn't depend on animation frames. Points which don't react to the events are hovered through the Highcharts
+     * API instead. A point whose tooltip doesn't change within the point timeout is skipped, and the harvest stops at
+     * the total timeout. Calls back with the tooltip text and color of the points harvested so far, and the number of
+     * API fallbacks, skipped points and whether it stopped at the total timeout
+     */
+    private static final String HARVEST_TOOLTIPS_SCRIPT = "var types=arguments[0],pointTimeout=arguments[1],"
+            + "timeout=arguments[2],done=arguments[arguments.length-1],start=Date.now(),finished=false,"
+            + "result={points:[],fallbacks:0,missed:0,truncated:false},jobs=[],charts=[];"
+            + "if(!window.Highcharts){done(result);return;}"
+            + "Highcharts.charts.forEach(function(chart){"
+            + "if(!chart||!chart.renderTo||chart.renderTo.offsetParent===null||!chart.tooltip){return;}"
+            + "charts.push(chart);chart.series.forEach(function(series){"
+            + "if(!series.visible||types.indexOf(series.type)<0){return;}"
+            + "series.points.forEach(function(point){"
+            + "if(point.isNull||point.visible===false||!point.graphic){return;}"
+            + "jobs.push({chart:chart,point:point});});});});"
+            + "function hover(point){var element=point.graphic.element,rect=element.getBoundingClientRect(),"
+            + "init={bubbles:true,cancelable:true,view:window,clientX:rect.left+rect.width/2,"
+            + "clientY:rect.top+rect.height/2,pointerType:'mouse',isPrimary:true};"
+            + "['pointerover','mouseover','pointermove','mousemove'].forEach(function(type){"
+            + "var Event=type.indexOf('pointer')===0&&window.PointerEvent?PointerEvent:MouseEvent;"
+            + "element.dispatchEvent(new Event(type,init));});}"
+            + "function read(chart){var label=chart.tooltip.label;if(!label||!label.element){return null;}"
+            + "var text=label.element.querySelector('text');"
+            + "return (text||label.element).textContent;}"
+            + "function finish(){if(finished){return;}finished=true;"
+            + "charts.forEach(function(c){c.tooltip.hide(0);});done(result);}"
+            + "function next(i){if(finished){return;}if(i>=jobs.length){finish();return;}"
+            + "if(Date.now()-start>=timeout){result.truncated=true;finish();return;}"
+            + "var job=jobs[i],previous=read(job.chart),settled=false,observer,timer;"
+            + "function settle(tooltip){if(settled){return;}settled=true;observer.disconnect();clearTimeout(timer);"
+            + "if(tooltip===null){result.missed++;}else{result.points.push({tooltip:tooltip,"
+            + "color:job.point.graphic.element.getAttribute('fill')||job.point.color});}"
+            + "Promise.resolve().then(function(){next(i+1);});}"
+            + "function check(){var tooltip=read(job.chart);"
+            + "if(job.chart.hoverPoint===job.point&&tooltip!==null&&tooltip!==previous){settle(tooltip);}}"
+            + "observer=new MutationObserver(check);"
+            + "observer.observe(job.chart.container,{childList:true,subtree:true,characterData:true});"
+            + "timer=setTimeout(function(){settle(null);},pointTimeout);"
+            + "hover(job.point);"
+            + "if(job.chart.hoverPoint!==job.point){result.fallbacks++;job.point.onMouseOver();}"
+            + "check();}"
+            + "next(0);";
+    /**
+     * For each element, find a pixel which hits it, from its geometry: along the mid-angle ray of the arc for pie
+     * slices, starting at the outer edge where the slice is the widest, otherwise between the centroid and the outline
+     * of the path. Each pixel is checked to be inside the fill and to be the top element at that position.
+     * Returns its offset from the in-view center of the element, the origin of the pointer actions, or null if none
+     */
+    private static final String GET_HOVER_OFFSETS_SCRIPT = "function offset(element){"
+            + "if(!element||!element.ownerSVGElement||!element.getScreenCTM){return null;}"
+            + "var rect=element.getBoundingClientRect();"
+            + "if(rect.left<0||rect.top<0||rect.right>innerWidth||rect.bottom>innerHeight){"
+            + "element.scrollIntoView({block:'center',inline:'center'});rect=element.getBoundingClientRect();}"
+            + "var left=Math.max(0,rect.left),right=Math.min(innerWidth,rect.right),"
+            + "top=Math.max(0,rect.top),bottom=Math.min(innerHeight,rect.bottom);"
+            + "if(right<=left||bottom<=top){return null;}"
+            + "var cx=Math.floor((left+right)/2),cy=Math.floor((top+bottom)/2);"
+            + "if(document.elementFromPoint(cx,cy)===element){return [0,0];}"
+            + "var ctm=element.getScreenCTM(),point=element.ownerSVGElement.createSVGPoint(),candidates=[],"
+            + "arc=element.point&&element.point.shapeArgs;"
+            + "if(arc&&arc.r&&typeof arc.start==='number'){var angle=(arc.start+arc.end)/2,inner=arc.innerR||0;"
+            + "for(var d=0.5;arc.r-d>inner;d*=2){"
+            + "candidates.push([arc.x+(arc.r-d)*Math.cos(angle),arc.y+(arc.r-d)*Math.sin(angle)]);}}"
+            + "else if(element.getTotalLength){var length=element.getTotalLength(),outline=[],sx=0,sy=0;"
+            + "for(var i=0;i<32;i++){var p=element.getPointAtLength(length*i/32);outline.push(p);sx+=p.x;sy+=p.y;}"
+            + "sx/=32;sy/=32;candidates.push([sx,sy]);"
+            + "outline.forEach(function(p){candidates.push([(p.x+sx)/2,(p.y+sy)/2]);});}"
+            + "for(var c=0;c<candidates.length;c++){point.x=candidates[c][0];point.y=candidates[c][1];"
+            + "if(element.isPointInFill&&!element.isPointInFill(point)){continue;}"
+            + "var screen=point.matrixTransform(ctm),"
+            + "xs=[Math.round(screen.x),Math.floor(screen.x),Math.ceil(screen.x)],"
+            + "ys=[Math.round(screen.y),Math.floor(screen.y),Math.ceil(screen.y)];"
+            + "for(var x=0;x<3;x++){for(var y=0;y<3;y++){"
+            + "if(document.elementFromPoint(xs[x],ys[y])===element){return [xs[x]-cx,ys[y]-cy];}}}}"
+            + "return null;}"
+            + "return arguments[0].map(offset);";
+    /**
+     * Disable the animations of every chart and count the chart renders, from Highcharts' load and redraw events.
+     * Runs before the page scripts when pinned, so Highcharts is patched as soon as it is defined
+     */
+    private static final String RENDER_HOOK_SCRIPT = "(function(){if(window.__fsChartHook){return;}"
+            + "var hook=window.__fsChartHook={renders:0,listeners:[]};"
+            + "function rendered(){hook.renders++;hook.listeners.slice().forEach(function(l){l();});}"
+            + "var noAnimation={chart:{animation:false},plotOptions:{series:{animation:false}},"
+            + "tooltip:{animation:false}};"
+            + "function patch(H){if(!H||!H.Chart||H.__fsPatched){return;}H.__fsPatched=true;"
+            + "H.setOptions(noAnimation);H.addEvent(H.Chart,'load',rendered);H.addEvent(H.Chart,'redraw',rendered);"
+            + "(H.charts||[]).forEach(function(c){if(c){c.update(noAnimation);}});}"
+            + "if(window.Highcharts){patch(window.Highcharts);return;}"
+            + "var highcharts;Object.defineProperty(window,'Highcharts',{configurable:true,enumerable:true,"
+            + "get:function(){return highcharts;},set:function(H){highcharts=H;patch(H);}});})();";
+    /**
+     * Call back when the visible charts are rendered: on the first render after the given count, or once the grace
+     * period passed without any render. Returns false if they are still not rendered at the timeout
+     */
+    private static final String WAIT_FOR_RENDER_SCRIPT = "var previous=arguments[0],grace=arguments[1],"
+            + "timeout=arguments[2],done=arguments[arguments.length-1],start=Date.now(),finished=false;"
+            + "if(arguments[3]){" + RENDER_HOOK_SCRIPT + "}"
+            + "var hook=window.__fsChartHook||{renders:-1,listeners:[]};"
+            + "function isRendered(){if(!window.Highcharts||!Highcharts.charts){return false;}"
+            + "var charts=Highcharts.charts.filter(function(c){return c&&c.renderTo&&c.renderTo.offsetParent!==null;});"
+            + "return charts.length>0&&charts.every(function(c){return c.hasRendered&&!c.isDirtyBox"
+            + "&&!c.series.some(function(s){return s.isDirty||s.isDirtyData;});});}"
+            + "function check(){if(finished){return;}var elapsed=Date.now()-start;"
+            + "if(isRendered()&&(hook.renders>previous||elapsed>=grace)){finish(true);}"
+            + "else if(elapsed>=timeout){finish(false);}}"
+            + "function finish(result){finished=true;var i=hook.listeners.indexOf(listener);"
+            + "if(i>=0){hook.listeners.splice(i,1);}done(result);}"
+            + "function listener(){setTimeout(check,0);}"
+            + "hook.listeners.push(listener);setTimeout(check,Math.max(0,grace));setTimeout(check,timeout);check();";
+    private static final String RENDER_HOOK_NAME = "fsChartRenderHook";
+
+    private HighChartHelper() {
+    }
+
+    /**
+     * Pin the render hook to the browser, so it runs in every page before the page scripts.
+     * For browsers without DevTools, the hook is injected by {@link #waitForChartRendered} instead, and only applies
+     * to the charts rendered after it
+     *
+     * @param driver driver
+     */
+    public static void installRenderHook(final WebDriver driver) {
+        if (!Constants.CHART_RENDER_HOOK_ENABLED || !DriverUtils.supportsDevTools(driver)) {
+            return;
+        }
+        try {
+            final DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            devTools.getDomains().javascript().pin(RENDER_HOOK_NAME, RENDER_HOOK_SCRIPT);
+        } catch (final Exception e) {
+            log.warn("Unable to pin the chart render hook: {}", LogHelper.summarize(e));
+        }
+    }
+
+    /**
+     * @return number of chart renders in the current page, to give to {@link #waitForChartRendered}, -1 if the render
+     * hook is not in the page
+     */
+    public static long getRenderCount() {
+        final Object renders = DriverUtils.execJavaScript(
+                "return window.__fsChartHook?window.__fsChartHook.renders:-1;");
+        return renders == null ? -1 : ((Number) renders).longValue();
+    }
+
+    /**
+     * Wait until the visible charts are rendered after the given render count, e.g. after a click which redraws them.
+     * Returns as soon as Highcharts notifies the render instead of polling. If no render happens within
+     * {@link Constants#CHART_RENDER_GRACE_IN_MILLIS}, e.g. the charts were already rendered, returns as soon as they
+     * are ready
+     *
+     * @param previousRenderCount render count before the action, see {@link #getRenderCount()}
+     * @param timeOutInSeconds    timeout in seconds
+     * @return True if the charts are rendered, false otherwise
+     */
+    public static boolean waitForChartRendered(final long previousRenderCount, final int timeOutInSeconds) {
+        //the script must finish before the driver script timeout
+        final long timeoutInMillis = Math.min(timeOutInSeconds, Constants.SCRIPT_TIMEOUT_IN_SECONDS - 1) * 1000L;
+        try {
+            final Object rendered = ((JavascriptExecutor) DriverUtils.getDriver()).executeAsyncScript(
+                    WAIT_FOR_RENDER_SCRIPT, previousRenderCount, Constants.CHART_RENDER_GRACE_IN_MILLIS,
+                    timeoutInMillis, Constants.CHART_RENDER_HOOK_ENABLED);
+            return Boolean.TRUE.equals(rendered);
+        } catch (final Exception e) {
+            LogHelper.warnThrottled(log, "Exception occurred when waiting for the charts to render: {}",
+                    LogHelper.summarize(e));
+            return false;
+        }
+    }
+
+    /**
+     * Get, for each chart point element, the offset to hover it at, in a single script execution. Unlike the center
+     * of the element, the offset hits even the slices which are only a few pixels wide
+     *
+     * @param elements SVG elements of the chart points, e.g. the paths of the pie slices
+     * @return offset from the in-view center of each element, see {@link ElementHelper#moveTo(WebElement, Point)},
+     * null for the elements which have no pixel that can be hovered
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Point> getHoverOffsets(final List<WebElement> elements) {
+        final List<List<Number>> offsets = (List<List<Number>>) DriverUtils.execJavaScript(
+                GET_HOVER_OFFSETS_SCRIPT, elements);
+        return offsets.stream()
+                .map(offset -> offset == null ? null : new Point(offset.get(0).intValue(), offset.get(1).intValue()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the tooltip of every point of the displayed charts, without hovering any of them
+     *
+     * @param seriesTypes Highcharts series types to collect, e.g. {@link #LINE_SERIES_TYPES}
+     * @return tooltip of every point, in series then point order
+     */
+    public static List<TooltipAttr> getTooltipAttrs(final String... seriesTypes) {
+        return toTooltipAttrs(getPoints(seriesTypes));
+    }
+
+    /**
+     * Get the color and tooltip of every point of the displayed charts, without clicking any of them
+     *
+     * @param seriesTypes Highcharts series types to collect, e.g. {@link #COLUMN_SERIES_TYPES}
+     * @return color and tooltip of every point, in series then point order
+     */
+    public static List<HighChartColumnSeriesAttr> getColumnSeriesAttrs(final String... seriesTypes) {
+        return toColumnSeriesAttrs(getPoints(seriesTypes));
+    }
+
+    /**
+     * Hover every point of the displayed charts and read the rendered tooltip, all in a single script execution
+     *
+     * @param seriesTypes Highcharts series types to collect, e.g. {@link #LINE_SERIES_TYPES}
+     * @return rendered tooltip of every point, in series then point order
+     */
+    public static List<TooltipAttr> harvestTooltipAttrs(final String... seriesTypes) {
+        return toTooltipAttrs(harvestPoints(seriesTypes));
+    }
+
+    /**
+     * Hover every point of the displayed charts and read the rendered tooltip and the point color, all in a single
+     * script execution
+     *
+     * @param seriesTypes Highcharts series types to collect, e.g. {@link #COLUMN_SERIES_TYPES}
+     * @return color and rendered tooltip of every point, in series then point order
+     */
+    public static List<HighChartColumnSeriesAttr> harvestColumnSeriesAttrs(final String... seriesTypes) {
+        return toColumnSeriesAttrs(harvestPoints(seriesTypes));
+    }
+
+    private static List<TooltipAttr> toTooltipAttrs(final List<Map<String, Object>> points) {
+        return points.stream().map(point -> new TooltipAttr((String) point.get("tooltip")))
+                .collect(Collectors.toList());
+    }
+
+    private static List<HighChartColumnSeriesAttr> toColumnSeriesAttrs(final List<Map<String, Object>> points) {
+        return points.stream()
+                .map(point -> new HighChartColumnSeriesAttr((String) point.get("color"),
+                        new TooltipAttr((String) point.get("tooltip"))))
+                .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> harvestPoints(final String... seriesTypes) {
+        //the last point may start right before the total timeout, it must still end before the driver script timeout
+        final long timeoutInMillis = (Constants.SCRIPT_TIMEOUT_IN_SECONDS - 1) * 1000L
+                - Constants.TOOLTIP_HARVEST_POINT_TIMEOUT_IN_MILLIS;
+        final Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) DriverUtils.getDriver())
+                .executeAsyncScript(HARVEST_TOOLTIPS_SCRIPT, Arrays.asList(seriesTypes),
+                        Constants.TOOLTIP_HARVEST_POINT_TIMEOUT_IN_MILLIS, timeoutInMillis);
+        final List<Map<String, Object>> points = (List<Map<String, Object>>) result.get("points");
+        final long fallbacks = ((Number) result.get("fallbacks")).longValue();
+        final long missed = ((Number) result.get("missed")).longValue();
+        log.debug("Harvested {} tooltip(s) of {} series", points.size(), Arrays.toString(seriesTypes));
+        if (fallbacks > 0) {
+            log.warn("{} of the harvested point(s) of {} series didn't react to pointer events, hovered through the "
+                    + "chart API", fallbacks, Arrays.toString(seriesTypes));
+        }
+        if (missed > 0) {
+            log.warn("{} point(s) of {} series skipped, their tooltip didn't show within {} ms", missed,
+                    Arrays.toString(seriesTypes), Constants.TOOLTIP_HARVEST_POINT_TIMEOUT_IN_MILLIS);
+        }
+        if (Boolean.TRUE.equals(result.get("truncated"))) {
+            log.warn("Harvest of {} series stopped after {} point(s) at {} ms, the other points are missing",
+                    Arrays.toString(seriesTypes), points.size() + missed, timeoutInMillis);
+        }
+        return points;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> getPoints(final String... seriesTypes) {
+        final List<Map<String, Object>> points =
+                (List<Map<String, Object>>) DriverUtils.execJavaScript(GET_POINTS_SCRIPT, Arrays.asList(seriesTypes));
+        log.debug("Collected {} point(s) of {} series from chart model", points.size(), Arrays.toString(seriesTypes));
+        return points;
+    }
+}
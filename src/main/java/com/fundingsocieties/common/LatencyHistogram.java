@@ -0,0 +1,81 @@
+package com.fundingsocieties.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log-linear histogram of durations in nanoseconds, in the style of HdrHistogram: every power of two is split in
+ * 32 buckets, so a recorded value is known within ~3%. Recording is lock-free and doesn't allocate.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = Long.SIZE - SUB_BUCKET_BITS + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT * SUB_BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        this.counts.incrementAndGet(getIndex(value));
+        this.totalCount.increment();
+        this.totalNanos.add(value);
+        long max = this.maxNanos.get();
+        while (value > max && !this.maxNanos.compareAndSet(max, value)) {
+            max = this.maxNanos.get();
+        }
+    }
+
+    public long getCount() {
+        return this.totalCount.sum();
+    }
+
+    public long getTotalNanos() {
+        return this.totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return this.maxNanos.get();
+    }
+
+    /**
+     * @param percentile e.g. 99 for p99
+     * @return highest value of the bucket the percentile falls in, 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(final double percentile) {
+        final long count = this.getCount();
+        if (count == 0) {
+            return 0;
+        }
+        final long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long cumulative = 0;
+        for (int i = 0; i < this.counts.length(); i++) {
+            cumulative += this.counts.get(i);
+            if (cumulative >= target) {
+                return Math.min(getHighestValue(i), this.getMaxNanos());
+            }
+        }
+        return this.getMaxNanos();
+    }
+
+    private static int getIndex(final long value) {
+        if (value < 2 * SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        //keep the SUB_BUCKET_BITS + 1 highest bits of the value
+        final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+    private static long getHighestValue(final int index) {
+        if (index < 2 * SUB_BUCKET_COUNT) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKET_COUNT - 1;
+        final long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return (subBucket << shift) + (1L << shift) - 1;
+    }
+}
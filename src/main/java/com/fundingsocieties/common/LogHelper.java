@@ -0,0 +1,106 @@
+package com.fundingsocieties.common;
+
+import org.slf4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logging helpers for the hot paths: log arguments which are only rendered if the message is logged, and warnings
+ * which are logged once per {@link Constants#LOG_THROTTLE_WINDOW_IN_MILLIS} when they repeat
+ */
+public final class LogHelper {
+    private static final long WINDOW_IN_NANOS = TimeUnit.MILLISECONDS.toNanos(Constants.LOG_THROTTLE_WINDOW_IN_MILLIS);
+    private static final Map<String, Throttle> THROTTLES = new ConcurrentHashMap<>();
+
+    private LogHelper() {
+    }
+
+    /**
+     * One line summary of the exception, e.g. "TimeoutException: Expected condition failed: ...", instead of the
+     * whole stack trace. Only rendered if the message is logged
+     *
+     * @param throwable exception
+     * @return log argument
+     */
+    public static Object summarize(final Throwable throwable) {
+        return new Summary(throwable);
+    }
+
+    /**
+     * Log a warning, unless the same warning was already logged within the throttle window.
+     * A warning is the same if it has the same format and the same arguments, ignoring the exception summaries.
+     * The number of skipped warnings is added to the next one logged. At most
+     * {@link Constants#LOG_THROTTLE_MAX_WARNINGS} warnings are tracked: beyond it the ones out of their window are
+     * dropped, and all of them if none is
+     *
+     * @param logger logger
+     * @param format message format
+     * @param args   message arguments
+     */
+    public static void warnThrottled(final Logger logger, final String format, final Object... args) {
+        if (!logger.isWarnEnabled()) {
+            return;
+        }
+        final StringBuilder key = new StringBuilder(logger.getName()).append('|').append(format);
+        for (final Object arg : args) {
+            if (!(arg instanceof Throwable) && !(arg instanceof Summary)) {
+                key.append('|').append(arg);
+            }
+        }
+        final long now = System.nanoTime();
+        if (THROTTLES.size() >= Constants.LOG_THROTTLE_MAX_WARNINGS) {
+            evict(now);
+        }
+        final Throttle throttle = THROTTLES.computeIfAbsent(key.toString(), k -> new Throttle());
+        final long last = throttle.lastLogged.get();
+        if (last != 0 && now - last < WINDOW_IN_NANOS
+                || !throttle.lastLogged.compareAndSet(last, now)) {
+            throttle.skipped.incrementAndGet();
+            return;
+        }
+        final int skipped = throttle.skipped.getAndSet(0);
+        if (skipped == 0) {
+            logger.warn(format, args);
+        } else {
+            logger.warn(format + " ({} similar warning(s) skipped)", append(args, skipped));
+        }
+    }
+
+    private static void evict(final long now) {
+        THROTTLES.values().removeIf(throttle -> now - throttle.lastLogged.get() >= WINDOW_IN_NANOS);
+        if (THROTTLES.size() >= Constants.LOG_THROTTLE_MAX_WARNINGS) {
+            THROTTLES.clear();
+        }
+    }
+
+    private static Object[] append(final Object[] args, final Object arg) {
+        final Object[] result = new Object[args.length + 1];
+        System.arraycopy(args, 0, result, 0, args.length);
+        result[args.length] = arg;
+        return result;
+    }
+
+    private static final class Summary {
+        private final Throwable throwable;
+
+        private Summary(final Throwable throwable) {
+            this.throwable = throwable;
+        }
+
+        @Override
+        public String toString() {
+            final String message = this.throwable.getMessage();
+            return message == null ? this.throwable.getClass().getSimpleName()
+                    : this.throwable.getClass().getSimpleName() + ": " + message.split("\n", 2)[0];
+        }
+    }
+
+    private static final class Throttle {
+        private final AtomicLong lastLogged = new AtomicLong();
+        private final AtomicInteger skipped = new AtomicInteger();
+    }
+}
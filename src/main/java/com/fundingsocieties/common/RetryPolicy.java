@@ -0,0 +1,184 @@
+package com.fundingsocieties.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.StaleElementReferenceException;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Retry an action while it fails with a retryable exception, up to a number of attempts and a time budget.
+ * Attempts are spaced by an exponential backoff with full jitter, so retries don't hammer a page which is re-rendering.
+ * Retries and the time they cost are counted per locator and action, see {@link #writeStats()}.
+ */
+@Slf4j
+public final class RetryPolicy {
+    /**
+     * Retry on {@link StaleElementReferenceException}, the action must locate the element again on every attempt
+     */
+    public static final RetryPolicy STALE_ELEMENT = new RetryPolicy(StaleElementReferenceException.class,
+            Constants.STALE_RETRY_MAX_ATTEMPTS, Constants.STALE_RETRY_TIME_BUDGET_IN_MILLIS,
+            Constants.STALE_RETRY_BACKOFF_IN_MILLIS, Constants.STALE_RETRY_MAX_BACKOFF_IN_MILLIS);
+    private static final String[] STATS_HEADER = {"Locator", "Action", "Retries", "Give ups", "Time lost (ms)"};
+    private static final Map<String, Stats> STATS = new ConcurrentHashMap<>();
+
+    private final Class<? extends RuntimeException> retryOn;
+    private final int maxAttempts;
+    private final long timeBudgetInMillis;
+    private final long backoffInMillis;
+    private final long maxBackoffInMillis;
+
+    public RetryPolicy(final Class<? extends RuntimeException> retryOn, final int maxAttempts,
+                       final long timeBudgetInMillis, final long backoffInMillis, final long maxBackoffInMillis) {
+        this.retryOn = retryOn;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.timeBudgetInMillis = timeBudgetInMillis;
+        this.backoffInMillis = backoffInMillis;
+        this.maxBackoffInMillis = maxBackoffInMillis;
+    }
+
+    /**
+     * @param maxAttempts maximum number of attempts, including the first one
+     * @return same policy with another number of attempts
+     */
+    public RetryPolicy withMaxAttempts(final int maxAttempts) {
+        return new RetryPolicy(this.retryOn, maxAttempts, this.timeBudgetInMillis, this.backoffInMillis,
+                this.maxBackoffInMillis);
+    }
+
+    /**
+     * Run the action, again while it fails with the retryable exception
+     *
+     * @param locator locator the action is done on, only computed when the action is retried
+     * @param action  action name
+     * @param body    action
+     * @return number of retries
+     * @throws RuntimeException the last exception if the action still fails after all attempts or the time budget
+     */
+    public int run(final Supplier<String> locator, final String action, final Runnable body) {
+        final int[] retries = {0};
+        this.call(locator, action, () -> {
+            body.run();
+            return null;
+        }, retries);
+        return retries[0];
+    }
+
+    /**
+     * Call the action, again while it fails with the retryable exception
+     *
+     * @param locator locator the action is done on, only computed when the action is retried
+     * @param action  action name
+     * @param body    action
+     * @param <T>     type of the result
+     * @return result of the action
+     * @throws RuntimeException the last exception if the action still fails after all attempts or the time budget
+     */
+    public <T> T call(final Supplier<String> locator, final String action, final Supplier<T> body) {
+        return this.call(locator, action, body, new int[1]);
+    }
+
+    private <T> T call(final Supplier<String> locator, final String action, final Supplier<T> body,
+                       final int[] retries) {
+        final long start = System.nanoTime();
+        for (int attempt = 1; ; attempt++) {
+            final long attemptStart = System.nanoTime();
+            try {
+                final T result = body.get();
+                if (attempt > 1) {
+                    record(locator.get(), action, attempt - 1, attemptStart - start, false);
+                }
+                return result;
+            } catch (final RuntimeException e) {
+                if (!this.retryOn.isInstance(e)) {
+                    throw e;
+                }
+                final long elapsedNanos = System.nanoTime() - start;
+                final long elapsedInMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+                if (attempt >= this.maxAttempts || elapsedInMillis >= this.timeBudgetInMillis) {
+                    final String fullLocator = locator.get();
+                    record(fullLocator, action, attempt - 1, elapsedNanos, true);
+                    log.error("{} of '{}' failed after {} attempt(s) in {} ms: {}", action, fullLocator, attempt,
+                            elapsedInMillis, LogHelper.summarize(e));
+                    throw e;
+                }
+                retries[0] = attempt;
+                LogHelper.warnThrottled(log, "{} of '{}' failed, retrying: {}", action, locator.get(),
+                        LogHelper.summarize(e));
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(
+                        Math.min(this.getBackoffInMillis(attempt), this.timeBudgetInMillis - elapsedInMillis)));
+            }
+        }
+    }
+
+    /**
+     * Full jitter: random between 0 and the exponential backoff of the attempt
+     */
+    long getBackoffInMillis(final int attempt) {
+        final long backoff = Math.min(this.maxBackoffInMillis, this.backoffInMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(backoff + 1);
+    }
+
+    /**
+     * Count retries done outside of a policy, e.g. an action repeated until its effect is visible
+     *
+     * @param locator   locator the action is done on
+     * @param action    action name
+     * @param retries   number of retries
+     * @param lostNanos time spent on the retries
+     * @param gaveUp    true if the action still failed after the retries
+     */
+    public static void record(final String locator, final String action, final int retries, final long lostNanos,
+                              final boolean gaveUp) {
+        final Stats stats = STATS.computeIfAbsent(locator + "\t" + action, key -> new Stats());
+        stats.retries.add(retries);
+        stats.lostNanos.add(lostNanos);
+        if (gaveUp) {
+            stats.giveUps.increment();
+        }
+    }
+
+    /**
+     * Write the retries of the run per locator and action to {@link Constants#RETRY_STATS_FILEPATH}, most time lost
+     * first. Nothing is written if nothing was retried
+     */
+    public static void writeStats() {
+        writeStats(Constants.RETRY_STATS_FILEPATH);
+    }
+
+    static void writeStats(final String filePath) {
+        if (STATS.isEmpty()) {
+            return;
+        }
+        final List<Map.Entry<String, Stats>> entries = new ArrayList<>(STATS.entrySet());
+        entries.sort(Comparator.comparingLong(
+                (Map.Entry<String, Stats> entry) -> entry.getValue().lostNanos.sum()).reversed());
+        final List<String[]> lines = new ArrayList<>();
+        for (final Map.Entry<String, Stats> entry : entries) {
+            final String[] key = entry.getKey().split("\t", 2);
+            final Stats stats = entry.getValue();
+            lines.add(new String[]{key[0], key[1], String.valueOf(stats.retries.sum()),
+                    String.valueOf(stats.giveUps.sum()), String.format(Locale.ROOT, "%.3f",
+                    stats.lostNanos.sum() / (double) TimeUnit.MILLISECONDS.toNanos(1))});
+        }
+        FileHelper.createFolder(new File(filePath).getParent());
+        FileHelper.writeCsvFile(filePath, STATS_HEADER, lines);
+        log.info("Retry stats written to {}", filePath);
+    }
+
+    private static final class Stats {
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder giveUps = new LongAdder();
+        private final LongAdder lostNanos = new LongAdder();
+    }
+}
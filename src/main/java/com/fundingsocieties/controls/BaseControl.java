@@ -1,7 +1,13 @@
 package com.fundingsocieties.controls;
 
 import com.fundingsocieties.common.Constants;
+import com.fundingsocieties.common.LogHelper;
+import com.fundingsocieties.common.RetryPolicy;
 import com.fundingsocieties.driver.DriverUtils;
+import com.fundingsocieties.events.ControlActionEvent;
+import com.fundingsocieties.events.WaitEvent;
+import com.fundingsocieties.model.ElementSnapshot;
+import com.fundingsocieties.model.SnapshotProperty;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -11,7 +17,9 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptException;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
 import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
@@ -19,11 +27,17 @@ import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
-import java.lang.reflect.Constructor;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Getter
@@ -53,7 +67,7 @@ public class BaseControl {
         this.parent = parent;
         this.dynamicLocator = locator;
         this.stringLocator = locator;
-        this.locator = this.getLocatorFromString(locator);
+        this.locator = LocatorCache.resolve(locator).getBy();
     }
 
     public BaseControl(final String locator, final Object... args) {
@@ -62,8 +76,9 @@ public class BaseControl {
 
     public BaseControl(final BaseControl parent, final String locator, final Object... args) {
         this.parent = parent;
-        this.stringLocator = String.format(locator, args);
-        this.locator = this.getLocatorFromString(this.stringLocator);
+        final ResolvedLocator resolvedLocator = LocatorCache.resolve(locator, args);
+        this.stringLocator = resolvedLocator.getStringLocator();
+        this.locator = resolvedLocator.getBy();
         this.dynamicLocator = locator;
     }
 
@@ -73,12 +88,13 @@ public class BaseControl {
      * @param args all the missing info
      */
     public void setDynamicValue(final Object... args) {
-        this.stringLocator = String.format(this.dynamicLocator, args);
-        this.locator = this.getLocatorFromString(this.stringLocator);
+        final ResolvedLocator resolvedLocator = LocatorCache.resolve(this.dynamicLocator, args);
+        this.stringLocator = resolvedLocator.getStringLocator();
+        this.locator = resolvedLocator.getBy();
     }
 
     protected WebDriver getWebDriver() {
-        return DriverUtils.getDriver();
+        return DriverUtils.getDriver(this.driverKey);
     }
 
     protected JavascriptExecutor jsExecutor() {
@@ -87,7 +103,8 @@ public class BaseControl {
 
     /**
      * Get WebElement of the current Control, if many elements found, return the first one
-     * Note: this will try to get the element over and over again if StaleElementReferenceException occurs
+     * Note: the element is located again if StaleElementReferenceException occurs,
+     * see {@link RetryPolicy#STALE_ELEMENT}
      *
      * @return first element found by using current Control locator
      */
@@ -95,21 +112,37 @@ public class BaseControl {
         if (this.cachedElement != null) {
             return this.cachedElement;
         }
-
-        final WebElement element;
-        try {
+        return this.callRetryingStale("find element", () -> {
             if (this.parent != null) {
                 final WebElement eleParent = this.parent.getElement();
-                element = eleParent.findElement(this.getLocator());
-            } else {
-                element = this.getWebDriver().findElement(this.getLocator());
+                return eleParent.findElement(this.getLocator());
             }
-            return element;
-        } catch (final StaleElementReferenceException e) {
-            log.error("StaleElementReferenceException '{}': {}", this.getFullLocator().toString(), e.getMessage()
-                    .split("\n")[0]);
-            return this.getElement();
-        }
+            return this.getWebDriver().findElement(this.getLocator());
+        });
+    }
+
+    /**
+     * Run the action, again with a bounded backoff if the element is stale, see {@link RetryPolicy#STALE_ELEMENT}.
+     * The action must get the element through {@link #getElement()}, so it's located again on every attempt
+     *
+     * @param action action name
+     * @param body   action
+     * @return number of retries
+     */
+    protected int runRetryingStale(final String action, final Runnable body) {
+        return RetryPolicy.STALE_ELEMENT.run(this::toString, action, body);
+    }
+
+    /**
+     * Same as {@link #runRetryingStale(String, Runnable)}, for an action which returns a result
+     *
+     * @param action action name
+     * @param body   action
+     * @param <T>    type of the result
+     * @return result of the action
+     */
+    protected <T> T callRetryingStale(final String action, final Supplier<T> body) {
+        return RetryPolicy.STALE_ELEMENT.call(this::toString, action, body);
     }
 
     /**
@@ -119,16 +152,18 @@ public class BaseControl {
      */
     public List<WebElement> getElements() {
         if (this.parent != null) {
-            return this.parent.getElement().findElements(this.getLocator());
+            return this.callRetryingStale("find elements",
+                    () -> this.parent.getElement().findElements(this.getLocator()));
         }
 
         return this.getWebDriver().findElements(this.getLocator());
     }
 
     /**
-     * Get all the elements and map it to the required Control type
+     * Get all the elements and map it to the required Control type.
+     * The xpaths of all the elements are computed in a single script execution
      *
-     * @param clazz Control class
+     * @param clazz Control class, must have a constructor taking a locator
      * @param <T>   Control class
      * @return List of Control
      */
@@ -138,23 +173,69 @@ public class BaseControl {
                 + "for(var o=0,r=e.previousSibling;r;r=r.previousSibling)"
                 + "r.nodeType!=Node.DOCUMENT_TYPE_NODE&&r.nodeName==e.nodeName&&++o;"
                 + "var t=e.nodeName.toLowerCase(),a=o?'['+(o+1)+']':'[1]';n.splice(0,0,t+a)}"
-                + "return n.length?'/'+n.join('/'):null} return getElementTreeXPath(arguments[0]);";
+                + "return n.length?'/'+n.join('/'):null} return arguments[0].map(getElementTreeXPath);";
         final List<T> result = new ArrayList<T>();
         final List<WebElement> list = this.getElements();
-        for (final WebElement webElement : list) {
+        if (list.isEmpty()) {
+            return result;
+        }
+        final List<String> xpaths;
+        try {
+            xpaths = (List<String>) this.jsExecutor().executeScript(js, list);
+        } catch (final Exception e) {
+            log.error("Exception occurred when getting element list by '{}': {}", clazz, LogHelper.summarize(e));
+            return result;
+        }
+        for (final String xpath : xpaths) {
             try {
-                final String xpath = (String) this.jsExecutor().executeScript(js, webElement);
-                final Constructor<?> ctor = clazz.getDeclaredConstructor(String.class);
-                ctor.setAccessible(true);
-                final T element = (T) ctor.newInstance(xpath);
-                result.add(element);
+                result.add(ControlFactory.create(clazz, xpath));
             } catch (final Exception e) {
-                log.error("Exception occurred when getting element list by '{}': {}", clazz, e);
+                log.error("Exception occurred when getting element list by '{}': {}", clazz, LogHelper.summarize(e));
             }
         }
         return result;
     }
 
+    /**
+     * Read the given properties of all elements of the current Control in a single script execution
+     *
+     * @param properties properties to read, e.g. {@link SnapshotProperty#text()}, {@link SnapshotProperty#attribute}
+     * @return immutable snapshot of every element found by using current Control locator
+     */
+    @SuppressWarnings("unchecked")
+    public List<ElementSnapshot> getSnapshots(final SnapshotProperty... properties) {
+        final String js = "var props=arguments[1];return arguments[0].map(function(e){"
+                + "var r={element:e,attributes:{},css:{}},style=null;"
+                + "props.forEach(function(p){switch(p.kind){"
+                + "case 'TEXT':r.text=e.innerText!==undefined?e.innerText:e.textContent;break;"
+                + "case 'CLASS':r.className=e.getAttribute('class');break;"
+                + "case 'ATTRIBUTE':r.attributes[p.name]=e.getAttribute(p.name);break;"
+                + "case 'CSS':style=style||window.getComputedStyle(e);"
+                + "r.css[p.name]=style.getPropertyValue(p.name);break;"
+                + "case 'RECT':var b=e.getBoundingClientRect();r.rect={x:b.left+window.pageXOffset,"
+                + "y:b.top+window.pageYOffset,width:b.width,height:b.height};break;}});"
+                + "return r;});";
+        final List<Map<String, String>> specs = new ArrayList<>();
+        for (final SnapshotProperty property : properties) {
+            final Map<String, String> spec = new HashMap<>();
+            spec.put("kind", property.getKind().name());
+            spec.put("name", property.getName());
+            specs.add(spec);
+        }
+        try {
+            log.debug("Get snapshots of elements '{}'", this);
+            final List<Map<String, Object>> rawSnapshots =
+                    (List<Map<String, Object>>) this.jsExecutor().executeScript(js, this.getElements(), specs);
+            return rawSnapshots.stream().map(ElementSnapshot::new)
+                    .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
+        } catch (final Exception e) {
+            log.error("Exception occurred when getting snapshots of '{}': {}",
+                    this,
+                    LogHelper.summarize(e));
+            throw e;
+        }
+    }
+
     /**
      * Get inner text of current element, this will try multiple approach to get the element text before returning empty
      *
@@ -163,18 +244,22 @@ public class BaseControl {
     public String getText() {
         String ret = "";
         try {
-            log.debug("Get text of element '{}'", this.getFullLocator().toString());
-            ret = this.getElement().getText();
-            if (ret == null || ret.isEmpty()) {
-                ret = this.getElement().getAttribute("value");
-                if (ret == null || ret.isEmpty()) {
-                    ret = this.getElement().getAttribute("innerText");
+            log.debug("Get text of element '{}'", this);
+            ret = this.callRetryingStale("get text", () -> {
+                final WebElement element = this.getElement();
+                String text = element.getText();
+                if (text == null || text.isEmpty()) {
+                    text = element.getAttribute("value");
+                    if (text == null || text.isEmpty()) {
+                        text = element.getAttribute("innerText");
+                    }
                 }
-            }
+                return text;
+            });
         } catch (final Exception e) {
             log.error("Exception occurred when getting text of '{}': {}",
-                    this.getFullLocator().toString(),
-                    e);
+                    this,
+                    LogHelper.summarize(e));
             throw e;
         }
 
@@ -189,13 +274,13 @@ public class BaseControl {
      */
     public String getAttribute(final String attributeName) {
         try {
-            log.debug("Get attribute '{}' of element '{}'", attributeName, this.getFullLocator().toString());
-            return this.getElement().getAttribute(attributeName);
+            log.debug("Get attribute '{}' of element '{}'", attributeName, this);
+            return this.callRetryingStale("get attribute", () -> this.getElement().getAttribute(attributeName));
         } catch (final Exception e) {
             log.error("Exception occurred when getting attribute '{}' of '{}': {}",
                     attributeName,
-                    this.getFullLocator().toString(),
-                    e);
+                    this,
+                    LogHelper.summarize(e));
             throw e;
         }
     }
@@ -267,15 +352,16 @@ public class BaseControl {
      * @return True if the element is clickable, false otherwise.
      * @deprecated use {@link #waitForElementClickable(int)} instead
      */
+    @Deprecated
     public boolean isClickable(final int timeOutInSeconds) {
         try {
-            log.debug("Checking element '{}' is clickable", this.getFullLocator().toString());
-            final WebDriverWait wait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeOutInSeconds));
-            return (wait.until(ExpectedConditions.elementToBeClickable(this.getFullLocator())) != null);
+            log.debug("Checking element '{}' is clickable", this);
+            return (this.waitUntil("clickable", timeOutInSeconds,
+                    ExpectedConditions.elementToBeClickable(this.getFullLocator())) != null);
         } catch (final Exception e) {
             log.error("Exception occurred when checking clickable of '{}': {}",
-                    this.getFullLocator().toString(),
-                    e);
+                    this,
+                    LogHelper.summarize(e));
             return false;
         }
     }
@@ -288,12 +374,12 @@ public class BaseControl {
      */
     public boolean isEnabled() {
         try {
-            log.debug("Checking element '{}' is enabled", this.getFullLocator().toString());
+            log.debug("Checking element '{}' is enabled", this);
             return this.getElement().isEnabled();
         } catch (final Exception e) {
             log.error("Exception occurred when checking enable of '{}': {}",
-                    this.getFullLocator().toString(),
-                    e);
+                    this,
+                    LogHelper.summarize(e));
             return false;
         }
     }
@@ -313,15 +399,16 @@ public class BaseControl {
      * @return True if element presence, false otherwise
      * @deprecated use {@link #waitForElementPresence(int)} instead
      */
+    @Deprecated
     public boolean doesExist(final int timeOutInSeconds) {
         try {
-            log.debug("Checking element '{}' is exist", this.getFullLocator().toString());
-            final WebDriverWait wait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeOutInSeconds));
-            return (wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(this.getFullLocator())) != null);
+            log.debug("Checking element '{}' is exist", this);
+            return (this.waitUntil("present", timeOutInSeconds,
+                    ExpectedConditions.presenceOfAllElementsLocatedBy(this.getFullLocator())) != null);
         } catch (final Exception e) {
             log.error("Exception occurred when checking exist of '{}': {}",
-                    this.getFullLocator().toString(),
-                    e);
+                    this,
+                    LogHelper.summarize(e));
             return false;
         }
     }
@@ -334,13 +421,13 @@ public class BaseControl {
      */
     public boolean waitForElementPresence(final int timeOutInSeconds) {
         try {
-            log.debug("Checking element '{}' is exist", this.getFullLocator().toString());
-            final WebDriverWait wait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeOutInSeconds));
-            return (wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(this.getFullLocator())) != null);
+            log.debug("Checking element '{}' is exist", this);
+            return (this.waitUntil("present", timeOutInSeconds,
+                    ExpectedConditions.presenceOfAllElementsLocatedBy(this.getFullLocator())) != null);
         } catch (final Exception e) {
             log.error("Exception occurred when checking exist of '{}': {}",
-                    this.getFullLocator().toString(),
-                    e);
+                    this,
+                    LogHelper.summarize(e));
             return false;
         }
     }
@@ -353,12 +440,12 @@ public class BaseControl {
      */
     public boolean isSelected() {
         try {
-            log.debug("Checking element '{}' is selected", this.getFullLocator().toString());
+            log.debug("Checking element '{}' is selected", this);
             return this.getElement().isSelected();
         } catch (final Exception e) {
             log.error("Exception occurred when checking selected of '{}': {}",
-                    this.getFullLocator().toString(),
-                    e);
+                    this,
+                    LogHelper.summarize(e));
             return false;
         }
     }
@@ -370,15 +457,16 @@ public class BaseControl {
      * @return True if element is visible, false otherwise
      * @deprecated Use {@link #waitForVisibility(int)} instead
      */
+    @Deprecated
     public boolean isVisible(final int timeOutInSeconds) {
         try {
-            log.debug("Checking element '{}' is visible", this.getFullLocator().toString());
-            final WebDriverWait wait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeOutInSeconds));
-            return (wait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(this.getFullLocator())) != null);
+            log.debug("Checking element '{}' is visible", this);
+            return (this.waitUntil("all visible", timeOutInSeconds,
+                    ExpectedConditions.visibilityOfAllElementsLocatedBy(this.getFullLocator())) != null);
         } catch (final Exception e) {
             log.error("Exception occurred when checking visible of '{}': {}",
-                    this.getFullLocator().toString(),
-                    e);
+                    this,
+                    LogHelper.summarize(e));
             return false;
         }
     }
@@ -391,7 +479,8 @@ public class BaseControl {
      */
     public void dragAndDrop(final int xOffset, final int yOffset) {
         final Actions actions = new Actions(this.getWebDriver());
-        actions.dragAndDropBy(this.getElement(), xOffset, yOffset).build().perform();
+        this.runRetryingStale("drag and drop",
+                () -> actions.dragAndDropBy(this.getElement(), xOffset, yOffset).build().perform());
     }
 
     /**
@@ -401,14 +490,16 @@ public class BaseControl {
      */
     public void dragAndDrop(final BaseControl target) {
         final Actions actions = new Actions(this.getWebDriver());
-        actions.dragAndDrop(this.getElement(), target.getElement()).build().perform();
+        this.runRetryingStale("drag and drop",
+                () -> actions.dragAndDrop(this.getElement(), target.getElement()).build().perform());
     }
 
     /**
      * Give focus to the current element (if it can be focused)
      */
     public void focus() {
-        this.jsExecutor().executeScript("arguments[0].focus();", this.getElement());
+        this.runRetryingStale("focus",
+                () -> this.jsExecutor().executeScript("arguments[0].focus();", this.getElement()));
     }
 
     /**
@@ -418,7 +509,8 @@ public class BaseControl {
         final String mouseOverScript = "if(document.createEvent){var evObj = document.createEvent('MouseEvents');"
                 + "evObj.initEvent('mouseover', true, false); arguments[0].dispatchEvent(evObj);}"
                 + " else if(document.createEventObject) { arguments[0].fireEvent('onmouseover');}";
-        this.jsExecutor().executeScript(mouseOverScript, this.getElement());
+        this.runRetryingStale("hover by js",
+                () -> this.jsExecutor().executeScript(mouseOverScript, this.getElement()));
     }
 
     /**
@@ -426,8 +518,11 @@ public class BaseControl {
      * The element is scrolled into view and its location is calculated using getBoundingClientRect.
      */
     public void moveTo() {
-        final Actions actions = new Actions(this.getWebDriver());
-        actions.moveToElement(this.getElement()).build().perform();
+        this.recordAction("move to", () -> {
+            final Actions actions = new Actions(this.getWebDriver());
+            return this.runRetryingStale("move to",
+                    () -> actions.moveToElement(this.getElement()).build().perform());
+        });
     }
 
     /**
@@ -439,9 +534,9 @@ public class BaseControl {
      * @param y vertical offset. A negative value means moving the mouse up.
      */
     public void moveTo(final int x, final int y) {
-        final WebElement element = this.getElement();
-        final int absX = element.getLocation().x + x;
-        final int absY = element.getLocation().y + y;
+        final Point location = this.callRetryingStale("get location", () -> this.getElement().getLocation());
+        final int absX = location.x + x;
+        final int absY = location.y + y;
 
         final Actions actions = new Actions(this.getWebDriver());
         actions.moveByOffset(absX, absY).build().perform();
@@ -451,9 +546,9 @@ public class BaseControl {
      * Moves the mouse from its current position (or 0,0) to the center of current element
      */
     public void moveToCenter() {
-        final WebElement element = this.getElement();
-        final int x = element.getLocation().x + element.getSize().width / 2;
-        final int y = element.getLocation().y + element.getSize().height / 2;
+        final Rectangle rect = this.callRetryingStale("get rect", () -> this.getElement().getRect());
+        final int x = rect.x + rect.width / 2;
+        final int y = rect.y + rect.height / 2;
 
         final Actions actions = new Actions(this.getWebDriver());
         actions.moveByOffset(x, y).build().perform();
@@ -466,14 +561,7 @@ public class BaseControl {
         final String js = "Element.prototype.documentOffsetTop=function(){return this.offsetTop+(this.offsetParent?"
                 + "this.offsetParent.documentOffsetTop():0)};var top=arguments[0].documentOffsetTop()"
                 + "-window.innerHeight/2;window.scrollTo(0,top);";
-        try {
-            this.jsExecutor().executeScript(js, this.getElement());
-        } catch (final StaleElementReferenceException exception) {
-            log.error("StaleElementReferenceException '{}': {}", this.getFullLocator().toString(),
-                    exception.getMessage()
-                            .split("\n")[0]);
-            this.scrollElementToCenterScreen();
-        }
+        this.runRetryingStale("scroll to center", () -> this.jsExecutor().executeScript(js, this.getElement()));
     }
 
     /**
@@ -491,27 +579,24 @@ public class BaseControl {
      * @param fallbackOffsetY vertical offset. A negative value means moving the mouse up.
      */
     public void scrollToView(final int fallbackOffsetX, final int fallbackOffsetY) {
-        try {
-            this.jsExecutor().executeScript("arguments[0].scrollIntoView(true);", this.getElement());
-        } catch (final JavascriptException e) {
-            final WebElement element = this.getElement();
-            final int x = element.getRect().x + fallbackOffsetX;
-            final int y = element.getRect().y + fallbackOffsetY;
-            final String js = String.format("window.scrollTo(%s, %s);", x, y);
-            this.jsExecutor().executeScript(js);
-        } catch (final StaleElementReferenceException exception) {
-            log.error("StaleElementReferenceException '{}': {}", this.getFullLocator().toString(),
-                    exception.getMessage()
-                            .split("\n")[0]);
-            this.scrollToView(fallbackOffsetX, fallbackOffsetY);
-        }
+        this.runRetryingStale("scroll to view", () -> {
+            try {
+                this.jsExecutor().executeScript("arguments[0].scrollIntoView(true);", this.getElement());
+            } catch (final JavascriptException e) {
+                final Rectangle rect = this.getElement().getRect();
+                final String js = String.format("window.scrollTo(%s, %s);", rect.x + fallbackOffsetX,
+                        rect.y + fallbackOffsetY);
+                this.jsExecutor().executeScript(js);
+            }
+        });
     }
 
     /**
-     * Retry an action until it no longer failed by Staleness exception, only use this at last resort
+     * Retry an action until it no longer failed by Staleness exception, only use this at last resort.
+     * Attempts are spaced and bounded in time like {@link RetryPolicy#STALE_ELEMENT}
      *
-     * @param actions
-     * @param retryTime
+     * @param actions   actions to run
+     * @param retryTime maximum number of attempts
      */
     public void retryIfStaleness(final Runnable actions, final int retryTime) {
         if (retryTime <= 0) {
@@ -519,12 +604,10 @@ public class BaseControl {
             return;
         }
         try {
-            actions.run();
+            RetryPolicy.STALE_ELEMENT.withMaxAttempts(retryTime).run(this::toString, "retry if staleness",
+                    actions);
         } catch (final StaleElementReferenceException exception) {
-            log.error("StaleElementReferenceException '{}': {}", this.getFullLocator().toString(),
-                    exception.getMessage()
-                            .split("\n")[0]);
-            this.retryIfStaleness(actions, retryTime - 1);
+            log.error(String.format("[retryIfStaleness] Action failed to executed after %s tries", retryTime));
         }
     }
 
@@ -537,16 +620,16 @@ public class BaseControl {
     public void setAttributeJS(final String attributeName, final String value) {
         try {
             log.debug("Set value '{}' for attribute '{}' of '{}'", value, attributeName,
-                    this.getFullLocator().toString());
-            this.jsExecutor()
+                    this);
+            this.runRetryingStale("set attribute", () -> this.jsExecutor()
                     .executeScript(String.format("arguments[0].setAttribute('%s','%s');", attributeName, value),
-                            this.getElement());
+                            this.getElement()));
         } catch (final Exception e) {
             log.error("Exception occurred when set value '{}' for attribute '{}' of '{}': {}",
                     value,
                     attributeName,
-                    this.getFullLocator().toString(),
-                    e);
+                    this,
+                    LogHelper.summarize(e));
             throw e;
         }
     }
@@ -556,7 +639,7 @@ public class BaseControl {
      * If this causes the current page to change, then this method will block until the new page is loaded.
      */
     public void submit() {
-        this.getElement().submit();
+        this.runRetryingStale("submit", () -> this.getElement().submit());
     }
 
     /**
@@ -577,13 +660,13 @@ public class BaseControl {
     public boolean waitForDisappear(final int timeOutInSeconds) {
         boolean ret = true;
         try {
-            log.debug("Wait for '{}' to be disappear", this.getFullLocator().toString());
-            final WebDriverWait wait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeOutInSeconds));
-            wait.until(ExpectedConditions.numberOfElementsToBe(this.getFullLocator(), 0));
+            log.debug("Wait for '{}' to be disappear", this);
+            this.waitUntil("disappear", timeOutInSeconds,
+                    ExpectedConditions.numberOfElementsToBe(this.getFullLocator(), 0));
         } catch (final Exception e) {
-            log.warn("Exception occurred when waiting for '{}' to be disappear: {}",
-                    this.getFullLocator().toString(),
-                    e);
+            LogHelper.warnThrottled(log, "Exception occurred when waiting for '{}' to be disappear: {}",
+                    this,
+                    LogHelper.summarize(e));
             ret = false;
         }
         return ret;
@@ -596,16 +679,17 @@ public class BaseControl {
      * @return
      * @deprecated use {@link #waitForElementPresence(int)} instead, will be removed in the next major update
      */
+    @Deprecated
     public boolean waitForDisplay(final int timeOutInSeconds) {
         boolean ret = true;
         try {
-            log.debug("Wait for '{}' to be displayed", this.getFullLocator().toString());
-            final WebDriverWait wait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeOutInSeconds));
-            wait.until(ExpectedConditions.presenceOfElementLocated(this.getFullLocator()));
+            log.debug("Wait for '{}' to be displayed", this);
+            this.waitUntil("displayed", timeOutInSeconds,
+                    ExpectedConditions.presenceOfElementLocated(this.getFullLocator()));
         } catch (final Exception e) {
-            log.warn("Exception occurred when waiting for '{}' to be displayed: {}",
-                    this.getFullLocator().toString(),
-                    e);
+            LogHelper.warnThrottled(log, "Exception occurred when waiting for '{}' to be displayed: {}",
+                    this,
+                    LogHelper.summarize(e));
             ret = false;
         }
         return ret;
@@ -629,13 +713,13 @@ public class BaseControl {
     public boolean waitForElementClickable(final int timeOutInSeconds) {
         boolean ret = true;
         try {
-            log.debug("Wait for '{}' to be clickable", this.getFullLocator().toString());
-            final WebDriverWait wait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeOutInSeconds));
-            wait.until(ExpectedConditions.elementToBeClickable(this.getFullLocator()));
+            log.debug("Wait for '{}' to be clickable", this);
+            this.waitUntil("clickable", timeOutInSeconds,
+                    ExpectedConditions.elementToBeClickable(this.getFullLocator()));
         } catch (final Exception e) {
-            log.warn("Exception occurred when waiting for '{}' to be clickable: {}",
-                    this.getFullLocator().toString(),
-                    e);
+            LogHelper.warnThrottled(log, "Exception occurred when waiting for '{}' to be clickable: {}",
+                    this,
+                    LogHelper.summarize(e));
             ret = false;
         }
         return ret;
@@ -659,13 +743,12 @@ public class BaseControl {
     public boolean waitForElementDisabled(final int timeOutInSeconds) {
         boolean ret = true;
         try {
-            log.debug("Wait for '{}' to be disabled", this.getFullLocator().toString());
-            final WebDriverWait wait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeOutInSeconds));
-            wait.until(driver -> !this.getElement().isEnabled());
+            log.debug("Wait for '{}' to be disabled", this);
+            this.waitUntil("disabled", timeOutInSeconds, driver -> !this.getElement().isEnabled());
         } catch (final Exception e) {
-            log.warn("Exception occurred when waiting for '{}' to be disabled: {}",
-                    this.getFullLocator().toString(),
-                    e);
+            LogHelper.warnThrottled(log, "Exception occurred when waiting for '{}' to be disabled: {}",
+                    this,
+                    LogHelper.summarize(e));
             ret = false;
         }
         return ret;
@@ -689,13 +772,12 @@ public class BaseControl {
     public boolean waitForElementEnabled(final int timeOutInSeconds) {
         boolean ret = true;
         try {
-            log.debug("Wait for '{}' to be enabled", this.getFullLocator().toString());
-            final WebDriverWait wait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeOutInSeconds));
-            wait.until(driver -> this.getElement().isEnabled());
+            log.debug("Wait for '{}' to be enabled", this);
+            this.waitUntil("enabled", timeOutInSeconds, driver -> this.getElement().isEnabled());
         } catch (final Exception e) {
-            log.warn("Exception occurred when waiting for '{}' to be enabled: {}",
-                    this.getFullLocator().toString(),
-                    e);
+            LogHelper.warnThrottled(log, "Exception occurred when waiting for '{}' to be enabled: {}",
+                    this,
+                    LogHelper.summarize(e));
             ret = false;
         }
         return ret;
@@ -719,13 +801,13 @@ public class BaseControl {
     public boolean waitForVisibility(final int timeOutInSeconds) {
         boolean ret = true;
         try {
-            log.debug("Wait for visibility of '{}'", this.getFullLocator().toString());
-            final WebDriverWait wait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeOutInSeconds));
-            wait.until(ExpectedConditions.visibilityOfElementLocated(this.getFullLocator()));
+            log.debug("Wait for visibility of '{}'", this);
+            this.waitUntil("visible", timeOutInSeconds,
+                    ExpectedConditions.visibilityOfElementLocated(this.getFullLocator()));
         } catch (final Exception e) {
-            log.warn("Exception occurred when waiting for visibility of '{}': {}",
-                    this.getFullLocator().toString(),
-                    e);
+            LogHelper.warnThrottled(log, "Exception occurred when waiting for visibility of '{}': {}",
+                    this,
+                    LogHelper.summarize(e));
             ret = false;
         }
         return ret;
@@ -749,13 +831,13 @@ public class BaseControl {
     public boolean waitForInvisibility(final int timeOutInSeconds) {
         boolean ret = true;
         try {
-            log.debug("Wait for invisibility of '{}'", this.getFullLocator().toString());
-            final WebDriverWait wait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeOutInSeconds));
-            wait.until(ExpectedConditions.invisibilityOfElementLocated(this.getFullLocator()));
+            log.debug("Wait for invisibility of '{}'", this);
+            this.waitUntil("invisible", timeOutInSeconds,
+                    ExpectedConditions.invisibilityOfElementLocated(this.getFullLocator()));
         } catch (final Exception e) {
-            log.warn("Exception occurred when waiting for invisibility of '{}': {}",
-                    this.getFullLocator().toString(),
-                    e);
+            LogHelper.warnThrottled(log, "Exception occurred when waiting for invisibility of '{}': {}",
+                    this,
+                    LogHelper.summarize(e));
             ret = false;
         }
         return ret;
@@ -770,13 +852,13 @@ public class BaseControl {
     public boolean waitForAllElementsInvisibility(final int timeOutInSeconds) {
         boolean ret = true;
         try {
-            log.debug("Wait for all elements invisibility of '{}'", this.getFullLocator().toString());
-            final WebDriverWait wait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeOutInSeconds));
-            wait.until(ExpectedConditions.invisibilityOfAllElements(this.getElements()));
+            log.debug("Wait for all elements invisibility of '{}'", this);
+            this.waitUntil("all invisible", timeOutInSeconds,
+                    ExpectedConditions.invisibilityOfAllElements(this.getElements()));
         } catch (final Exception e) {
-            log.warn("Exception occurred when waiting for all elements invisibility of '{}': {}",
-                    this.getFullLocator().toString(),
-                    e);
+            LogHelper.warnThrottled(log, "Exception occurred when waiting for all elements invisibility of '{}': {}",
+                    this,
+                    LogHelper.summarize(e));
             ret = false;
         }
         return ret;
@@ -793,13 +875,13 @@ public class BaseControl {
         boolean ret = true;
         try {
             log.debug("Wait for number of elements '{}' to be more than '{}'",
-                    this.getFullLocator().toString(), number);
-            final WebDriverWait wait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeOutInSeconds));
-            wait.until(ExpectedConditions.numberOfElementsToBeMoreThan(this.getFullLocator(), number));
+                    this, number);
+            this.waitUntil("more elements than", timeOutInSeconds,
+                    ExpectedConditions.numberOfElementsToBeMoreThan(this.getFullLocator(), number));
         } catch (final Exception e) {
-            log.warn("Exception occurred when waiting for number of elements '{}': {}",
-                    this.getFullLocator().toString(),
-                    e);
+            LogHelper.warnThrottled(log, "Exception occurred when waiting for number of elements '{}': {}",
+                    this,
+                    LogHelper.summarize(e));
             ret = false;
         }
         return ret;
@@ -816,13 +898,13 @@ public class BaseControl {
         boolean ret = true;
         try {
             log.debug("Wait for number of elements '{}' to be less than '{}'",
-                    this.getFullLocator().toString(), number);
-            final WebDriverWait wait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeOutInSeconds));
-            wait.until(ExpectedConditions.numberOfElementsToBeLessThan(this.getFullLocator(), number));
+                    this, number);
+            this.waitUntil("less elements than", timeOutInSeconds,
+                    ExpectedConditions.numberOfElementsToBeLessThan(this.getFullLocator(), number));
         } catch (final Exception e) {
-            log.warn("Exception occurred when waiting for number of elements '{}': {}",
-                    this.getFullLocator().toString(),
-                    e);
+            LogHelper.warnThrottled(log, "Exception occurred when waiting for number of elements '{}': {}",
+                    this,
+                    LogHelper.summarize(e));
             ret = false;
         }
         return ret;
@@ -848,14 +930,14 @@ public class BaseControl {
     public boolean waitForTextToBeNotPresent(final String text, final int timeOutInSeconds) {
         boolean ret = true;
         try {
-            log.debug("Wait for '{}' to be not present in '{}'", text, this.getFullLocator().toString());
-            final WebDriverWait wait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeOutInSeconds));
-            wait.until(ExpectedConditions.not(ExpectedConditions.textToBePresentInElement(this.getElement(), text)));
+            log.debug("Wait for '{}' to be not present in '{}'", text, this);
+            this.waitUntil("text not present", timeOutInSeconds,
+                    ExpectedConditions.not(ExpectedConditions.textToBePresentInElement(this.getElement(), text)));
         } catch (final Exception e) {
-            log.warn("Exception occurred when waiting for '{}' to not be present in '{}': {}",
+            LogHelper.warnThrottled(log, "Exception occurred when waiting for '{}' to not be present in '{}': {}",
                     text,
-                    this.getFullLocator().toString(),
-                    e);
+                    this,
+                    LogHelper.summarize(e));
             ret = false;
         }
         return ret;
@@ -881,14 +963,14 @@ public class BaseControl {
     public boolean waitForTextToBePresent(final String text, final int timeOutInSeconds) {
         boolean ret = true;
         try {
-            log.debug("Wait for '{}' to be present in '{}'", text, this.getFullLocator().toString());
-            final WebDriverWait wait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeOutInSeconds));
-            wait.until(ExpectedConditions.textToBePresentInElement(this.getElement(), text));
+            log.debug("Wait for '{}' to be present in '{}'", text, this);
+            this.waitUntil("text present", timeOutInSeconds,
+                    ExpectedConditions.textToBePresentInElement(this.getElement(), text));
         } catch (final Exception e) {
-            log.warn("Exception occurred when waiting for '{}' to be present in '{}': {}",
+            LogHelper.warnThrottled(log, "Exception occurred when waiting for '{}' to be present in '{}': {}",
                     text,
-                    this.getFullLocator().toString(),
-                    e);
+                    this,
+                    LogHelper.summarize(e));
             ret = false;
         }
         return ret;
@@ -914,14 +996,14 @@ public class BaseControl {
     public boolean waitForTextToMatch(final String pattern, final int timeOutInSeconds) {
         boolean ret = true;
         try {
-            log.debug("Wait for text to match '{}' in '{}'", pattern, this.getFullLocator().toString());
-            final WebDriverWait wait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeOutInSeconds));
-            wait.until(ExpectedConditions.textMatches(this.getFullLocator(), Pattern.compile(pattern)));
+            log.debug("Wait for text to match '{}' in '{}'", pattern, this);
+            this.waitUntil("text matches", timeOutInSeconds,
+                    ExpectedConditions.textMatches(this.getFullLocator(), Pattern.compile(pattern)));
         } catch (final Exception e) {
-            log.warn("Exception occurred when waiting for text to match '{}' in '{}': {}",
+            LogHelper.warnThrottled(log, "Exception occurred when waiting for text to match '{}' in '{}': {}",
                     pattern,
-                    this.getFullLocator().toString(),
-                    e);
+                    this,
+                    LogHelper.summarize(e));
             ret = false;
         }
         return ret;
@@ -952,22 +1034,24 @@ public class BaseControl {
         boolean ret = true;
         try {
             log.debug("Wait for '{}' to be not present in '{}' of '{}'", value, attribute,
-                    this.getFullLocator().toString());
-            final WebDriverWait wait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeOutInSeconds));
+                    this);
             if (this.cachedElement != null) {
-                wait.until(ExpectedConditions.not(ExpectedConditions.attributeToBe(
-                        this.cachedElement, attribute, value)));
+                this.waitUntil("attribute value not present", timeOutInSeconds,
+                        ExpectedConditions.not(ExpectedConditions.attributeToBe(
+                                this.cachedElement, attribute, value)));
             } else {
-                wait.until(ExpectedConditions.not(ExpectedConditions.attributeToBe(
-                        this.getFullLocator(), attribute, value)));
+                this.waitUntil("attribute value not present", timeOutInSeconds,
+                        ExpectedConditions.not(ExpectedConditions.attributeToBe(
+                                this.getFullLocator(), attribute, value)));
             }
 
         } catch (final Exception e) {
-            log.warn("Exception occurred when waiting for '{}' to be not present in '{}' of '{}': {}",
+            LogHelper.warnThrottled(log,
+                    "Exception occurred when waiting for '{}' to be not present in '{}' of '{}': {}",
                     value,
                     attribute,
-                    this.getFullLocator().toString(),
-                    e);
+                    this,
+                    LogHelper.summarize(e));
             ret = false;
         }
         return ret;
@@ -1002,14 +1086,13 @@ public class BaseControl {
     public boolean waitForStalenessOfElement(final int timeOutInSeconds) {
         boolean ret = true;
         try {
-            log.info("Wait for '{}' to be stale", this.getFullLocator().toString());
-            final WebDriverWait wait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeOutInSeconds));
-            wait.until(ExpectedConditions.stalenessOf(
+            log.info("Wait for '{}' to be stale", this);
+            this.waitUntil("stale", timeOutInSeconds, ExpectedConditions.stalenessOf(
                     getWebDriver().findElement(this.getFullLocator())));
         } catch (final Exception e) {
-            log.warn("Exception occurred when waiting for '{}' to be stale: {}",
-                    this.getFullLocator().toString(),
-                    e);
+            LogHelper.warnThrottled(log, "Exception occurred when waiting for '{}' to be stale: {}",
+                    this,
+                    LogHelper.summarize(e));
             ret = false;
         }
         return ret;
@@ -1028,88 +1111,20 @@ public class BaseControl {
                                                   final int timeOutInSeconds) {
         boolean ret = true;
         try {
-            log.debug("Wait for '{}' to be present in {} of {}", value, attribute, this.getFullLocator().toString());
-            final WebDriverWait wait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeOutInSeconds));
-            wait.until(ExpectedConditions.attributeToBe(this.getFullLocator(), attribute, value));
+            log.debug("Wait for '{}' to be present in {} of {}", value, attribute, this);
+            this.waitUntil("attribute value present", timeOutInSeconds,
+                    ExpectedConditions.attributeToBe(this.getFullLocator(), attribute, value));
         } catch (final Exception e) {
-            log.warn("Exception occurred when waiting for '{}' to be present in '{}' of '{}': {}",
+            LogHelper.warnThrottled(log, "Exception occurred when waiting for '{}' to be present in '{}' of '{}': {}",
                     value,
                     attribute,
-                    this.getFullLocator().toString(),
-                    e);
+                    this,
+                    LogHelper.summarize(e));
             ret = false;
         }
         return ret;
     }
 
-    private By getLocatorFromString(final String locator) {
-        final String body = this.getLocatorBody(locator);
-        final String type = this.getLocatorType(locator);
-
-        //xpath is the default locator type, if none specified
-        if (type.equals(locator)) {
-            return By.xpath(locator);
-        }
-
-        switch (type.toLowerCase()) {
-            case "css":
-                return By.cssSelector(body);
-            case "id":
-                return By.id(body);
-            case "class":
-                return By.className(body);
-            case "link":
-                return By.linkText(body);
-            case "xpath":
-                return By.xpath(body);
-            case "text":
-                return By.xpath(String.format("//*[contains(text(), '%s')]", body));
-            case "name":
-                return By.name(body);
-            default:
-                throw new RuntimeException(String.format("Locator type: %s is not supported.", type));
-        }
-    }
-
-    private String stringLocatorToXpath(final String locator) {
-        final String body = this.getLocatorBody(locator);
-        final String type = this.getLocatorType(locator);
-
-        //xpath is the default locator type, if none specified
-        if (type.equals(locator)) {
-            return locator;
-        }
-
-        switch (type.toLowerCase()) {
-            case "css":
-                //todo: support css to xpath when it's necessary to do so
-                throw new RuntimeException("Css to Xpath is not supported right now. Please another locator strategy");
-            case "id":
-                return String.format("//*[@id='%s']", body);
-            case "class":
-                return String.format("//*[@class='%s']", body);
-            case "link":
-                return String.format("//a[text()='%s']", body);
-            case "xpath":
-                return body;
-            case "text":
-                return String.format("//*[contains(text(), '%s')]", body);
-            case "name":
-                return String.format("//*[@name='%s']", body);
-            default:
-                throw new RuntimeException(String.format("Locator type: %s is not supported.", type));
-        }
-    }
-
-    private String getLocatorBody(final String locator) {
-        return locator.replaceAll("^[\\w\\s]*=(.*)", "$1").trim();
-    }
-
-    private String getLocatorType(final String locator) {
-        final String locatorType = locator.replaceAll("(^[\\w\\s]*)=.*", "$1").trim();
-        return locatorType.equals(locator) ? "xpath" : locatorType;
-    }
-
     /**
      * This will find the locator that can be used directly from Web Driver to find element,
      * useful when we use the constructor with parent locator,
@@ -1121,27 +1136,28 @@ public class BaseControl {
         if (this.parent == null) {
             return this.getLocator();
         }
-        final String parentLocator = this.parent.getStringLocator();
-        final String parentLocatorType = this.getLocatorType(parentLocator);
-        final String parentLocatorBody = this.getLocatorBody(parentLocator);
-        final String childLocator = this.getStringLocator();
-        final String locatorType = this.getLocatorType(childLocator);
-        String locatorBody = this.getLocatorBody(childLocator);
-        //child locator xpath start with a dot, remove them before combine locator
-        if (locatorType.equals("xpath")) {
-            locatorBody = locatorBody.replaceAll("(^\\.)", "");
-        }
-        //currently, we don't support translation between css and another strategy
-        if ((parentLocatorType.equals("css") && !locatorType.equals("css"))
-                || (!parentLocatorType.equals("css") && locatorType.equals("css"))) {
-            throw new RuntimeException(
-                    "Can't find the full locator, if parent locator is css, "
-                            + "then child locator must also be css and vice versa");
-        } else if (parentLocatorType.equals("css")) {
-            return By.cssSelector(String.format("%s %s", parentLocatorBody, locatorBody));
+        return this.getFullResolvedLocator().getBy();
+    }
+
+    ResolvedLocator getFullResolvedLocator() {
+        if (this.parent == null) {
+            return LocatorCache.resolve(this.getStringLocator());
         }
+        return LocatorCache.resolveFull(this.parent.getStringLocator(), this.getStringLocator());
+    }
 
-        return By.xpath(this.stringLocatorToXpath(parentLocatorBody) + this.stringLocatorToXpath(locatorBody));
+    /**
+     * Full locator of the control, so the control can be given as is to a log message and the locator is only
+     * resolved if the message is logged
+     *
+     * @return full locator, or the element for a control created from an element
+     */
+    @Override
+    public String toString() {
+        if (this.cachedElement != null && this.locator == null) {
+            return String.valueOf(this.cachedElement);
+        }
+        return String.valueOf(this.getFullLocator());
     }
 
     /**
@@ -1154,13 +1170,13 @@ public class BaseControl {
      */
     public String getCSSValue(final String cssProperty) {
         try {
-            log.debug("Get css value '{}' of element '{}'", cssProperty, this.getFullLocator().toString());
-            return this.getElement().getCssValue(cssProperty);
+            log.debug("Get css value '{}' of element '{}'", cssProperty, this);
+            return this.callRetryingStale("get css value", () -> this.getElement().getCssValue(cssProperty));
         } catch (final Exception e) {
             log.error("Exception occurred when getting css '{}' of '{}': {}",
                     cssProperty,
-                    this.getFullLocator().toString(),
-                    e);
+                    this,
+                    LogHelper.summarize(e));
             throw e;
         }
     }
@@ -1172,13 +1188,13 @@ public class BaseControl {
      */
     public void sendKeys(final String keys) {
         try {
-            log.debug("Send keys '{}' of element '{}'", keys, this.getFullLocator().toString());
-            this.getElement().sendKeys(keys);
+            log.debug("Send keys '{}' of element '{}'", keys, this);
+            this.runRetryingStale("send keys", () -> this.getElement().sendKeys(keys));
         } catch (final Exception e) {
             log.error("Exception occurred when sending keys '{}' of '{}': {}",
                     keys,
-                    this.getFullLocator().toString(),
-                    e);
+                    this,
+                    LogHelper.summarize(e));
             throw e;
         }
     }
@@ -1199,6 +1215,7 @@ public class BaseControl {
      * @return True if visible, False otherwise
      * @deprecated use {@link #waitForVisibility()} instead
      */
+    @Deprecated
     public boolean isVisible() {
         return this.waitForVisibility(Constants.DEFAULT_TIME_WAIT);
     }
@@ -1217,13 +1234,12 @@ public class BaseControl {
      */
     public void scrollToFindElement(final int timeoutInSeconds) {
         try {
-            final WebDriverWait webDriverWait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeoutInSeconds));
-            webDriverWait.until(this.ecScrollElementToView(this));
+            this.waitUntil("scrolled to", timeoutInSeconds, this.ecScrollElementToView(this));
             this.scrollToView();
         } catch (final Exception e) {
-            log.warn("Exception occurred when waiting for scrolling to find '{}': {}",
-                    this.getFullLocator().toString(),
-                    e);
+            LogHelper.warnThrottled(log, "Exception occurred when waiting for scrolling to find '{}': {}",
+                    this,
+                    LogHelper.summarize(e));
         }
     }
 
@@ -1234,12 +1250,191 @@ public class BaseControl {
      */
     public void waitForValueChanges(final int timeoutInSeconds) {
         try {
-            final WebDriverWait webDriverWait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeoutInSeconds));
-            webDriverWait.until(this.ecElementTextChanges(this, this.getText()));
+            this.waitUntil("text changes", timeoutInSeconds, this.ecElementTextChanges(this, this.getText()));
+        } catch (final Exception e) {
+            LogHelper.warnThrottled(log, "Exception occurred when waiting for scrolling to find '{}': {}",
+                    this,
+                    LogHelper.summarize(e));
+        }
+    }
+
+    /**
+     * Wait until the element is visible and its text is different from the given one.
+     * The page notifies the change through a MutationObserver, so this returns as soon as the text is rendered
+     * instead of at the next poll
+     *
+     * @param previousText     text before the change, null to accept any text
+     * @param timeOutInSeconds timeout in seconds
+     * @return the new text, null if it didn't change before the timeout
+     */
+    public String waitForTextChange(final String previousText, final int timeOutInSeconds) {
+        return this.waitForMutation(null, previousText, timeOutInSeconds);
+    }
+
+    /**
+     * Wait until the element is visible and its attribute value is different from the given one.
+     * The page notifies the change through a MutationObserver, so this returns as soon as the value is set
+     * instead of at the next poll
+     *
+     * @param attribute        attribute name
+     * @param previousValue    value before the change, null to accept any value
+     * @param timeOutInSeconds timeout in seconds
+     * @return the new value, null if it didn't change before the timeout
+     */
+    public String waitForAttributeChange(final String attribute, final String previousValue,
+                                         final int timeOutInSeconds) {
+        return this.waitForMutation(attribute, previousValue, timeOutInSeconds);
+    }
+
+    private String waitForMutation(final String attribute, final String previousValue, final int timeOutInSeconds) {
+        final String js = "var query=arguments[0],isCss=arguments[1],element=arguments[2],previous=arguments[3],"
+                + "attribute=arguments[4],timeout=arguments[5],done=arguments[arguments.length-1];"
+                + "function find(){if(element){return element;}"
+                + "if(isCss){return document.querySelector(query);}"
+                + "return document.evaluate(query,document,null,XPathResult.FIRST_ORDERED_NODE_TYPE,null)"
+                + ".singleNodeValue;}"
+                + "function read(){var e=find();if(!e){return null;}var style=window.getComputedStyle(e);"
+                + "if(style.visibility==='hidden'||style.display==='none'||e.getClientRects().length===0){return null;}"
+                + "var value=attribute?e.getAttribute(attribute):(e.innerText!==undefined?e.innerText:e.textContent);"
+                + "value=value===null?'':value.trim();return value===''||value===previous?null:value;}"
+                + "var value=read();if(value!==null){done(value);return;}"
+                + "var finished=false,timer=null;var observer=new MutationObserver(function(){"
+                + "if(finished){return;}var v=read();"
+                + "if(v!==null){finished=true;observer.disconnect();clearTimeout(timer);done(v);}});"
+                + "observer.observe(document.documentElement,"
+                + "{subtree:true,childList:true,characterData:true,attributes:true});"
+                + "timer=setTimeout(function(){finished=true;observer.disconnect();done(null);},timeout);";
+        String query = null;
+        boolean isCss = false;
+        if (this.cachedElement == null) {
+            final ResolvedLocator fullLocator = this.getFullResolvedLocator();
+            isCss = fullLocator.isCss();
+            query = isCss ? fullLocator.getBody() : fullLocator.getXpath();
+        }
+        //the script must finish before the driver script timeout
+        final long timeoutInMillis = Math.min(timeOutInSeconds, Constants.SCRIPT_TIMEOUT_IN_SECONDS - 1) * 1000L;
+        final WaitEvent event = new WaitEvent();
+        String outcome = "error";
+        event.begin();
+        try {
+            log.debug("Wait for {} of '{}' to change from '{}'", attribute == null ? "text" : attribute,
+                    this, previousValue);
+            final Object value = this.jsExecutor().executeAsyncScript(js, query, isCss, this.cachedElement,
+                    previousValue, attribute, timeoutInMillis);
+            outcome = value == null ? "timeout" : "met";
+            return (String) value;
         } catch (final Exception e) {
-            log.warn("Exception occurred when waiting for scrolling to find '{}': {}",
-                    this.getFullLocator().toString(),
-                    e);
+            LogHelper.warnThrottled(log, "Exception occurred when waiting for {} of '{}' to change: {}",
+                    attribute == null ? "text" : attribute,
+                    this,
+                    LogHelper.summarize(e));
+            return null;
+        } finally {
+            this.commitWaitEvent(event, (attribute == null ? "text" : attribute) + " changes", timeOutInSeconds,
+                    outcome, 0);
+        }
+    }
+
+    /**
+     * Wait until the condition is met, recorded as a {@link WaitEvent} when JFR is recording
+     *
+     * @param condition         condition name, for the event
+     * @param timeOutInSeconds  timeout in seconds
+     * @param expectedCondition condition to wait for
+     * @param <V>               type of the condition value
+     * @return value of the condition
+     */
+    private <V> V waitUntil(final String condition, final int timeOutInSeconds,
+                            final Function<? super WebDriver, V> expectedCondition) {
+        final WaitEvent event = new WaitEvent();
+        final CountingCondition<V> countingCondition = new CountingCondition<>(expectedCondition, condition, this);
+        String outcome = "error";
+        event.begin();
+        try {
+            final V value = new WebDriverWait(getWebDriver(), Duration.ofSeconds(timeOutInSeconds))
+                    .until(countingCondition);
+            outcome = "met";
+            return value;
+        } catch (final TimeoutException e) {
+            outcome = "timeout";
+            throw e;
+        } finally {
+            this.commitWaitEvent(event, condition, timeOutInSeconds, outcome,
+                    Math.max(0, countingCondition.checks - 1));
+        }
+    }
+
+    /**
+     * Condition counting its checks, described like the wrapped one so timeout messages name the original condition.
+     * The description is only built when the wait times out
+     */
+    private static final class CountingCondition<V> implements ExpectedCondition<V> {
+        private final Function<? super WebDriver, V> condition;
+        private final String name;
+        private final BaseControl control;
+        private int checks;
+
+        private CountingCondition(final Function<? super WebDriver, V> condition, final String name,
+                                  final BaseControl control) {
+            this.condition = condition;
+            this.name = name;
+            this.control = control;
+        }
+
+        @Override
+        public V apply(final WebDriver driver) {
+            this.checks++;
+            return this.condition.apply(driver);
+        }
+
+        @Override
+        public String toString() {
+            return this.condition instanceof ExpectedCondition ? this.condition.toString()
+                    : this.name + " of '" + this.control + "'";
+        }
+    }
+
+    private void commitWaitEvent(final WaitEvent event, final String condition, final int timeOutInSeconds,
+                                 final String outcome, final int retries) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setLocator(this.toString());
+            event.setCondition(condition);
+            event.setTimeoutInSeconds(timeOutInSeconds);
+            event.setOutcome(outcome);
+            event.setRetries(retries);
+            event.commit();
+        }
+    }
+
+    /**
+     * Run an action on the control, recorded as a {@link ControlActionEvent} when JFR is recording
+     *
+     * @param action action name, for the event
+     * @param body   action, returning the number of times it was retried
+     */
+    protected void recordAction(final String action, final IntSupplier body) {
+        final ControlActionEvent event = new ControlActionEvent();
+        String outcome = "error";
+        int retries = 0;
+        event.begin();
+        try {
+            retries = body.getAsInt();
+            outcome = "done";
+        } finally {
+            this.commitActionEvent(event, action, outcome, retries);
+        }
+    }
+
+    private void commitActionEvent(final ControlActionEvent event, final String action, final String outcome,
+                                   final int retries) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setLocator(this.toString());
+            event.setAction(action);
+            event.setOutcome(outcome);
+            event.setRetries(retries);
+            event.commit();
         }
     }
 
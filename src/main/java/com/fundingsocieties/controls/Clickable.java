@@ -1,9 +1,10 @@
 package com.fundingsocieties.controls;
 
+import com.fundingsocieties.common.LogHelper;
+import com.fundingsocieties.common.RetryPolicy;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
-import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
 import org.slf4j.Logger;
@@ -41,20 +42,18 @@ public class Clickable
      * Scroll the element into view then click
      */
     public void click() {
-        this.scrollElementToCenterScreen();
-        this.clickWithoutScroll();
+        this.recordAction("click", () -> {
+            this.scrollElementToCenterScreen();
+            return this.runRetryingStale("click", () -> this.getElement().click());
+        });
     }
 
     /**
      * Click the element
      */
     public void clickWithoutScroll() {
-        try {
-            this.getElement().click();
-        } catch (final StaleElementReferenceException exception) {
-            this.log.error(exception.getMessage());
-            this.clickWithoutScroll();
-        }
+        this.recordAction("click without scroll",
+                () -> this.runRetryingStale("click", () -> this.getElement().click()));
     }
 
     /**
@@ -63,13 +62,21 @@ public class Clickable
      * @param retryTimes number of retries attempt
      */
     public void click(final int retryTimes) {
-        if (retryTimes <= 0) {
-            throw new RuntimeException("Element is still visible after multiple attempt");
-        }
-        this.click();
-        if (!this.waitForDisappear(MINIMUM_ELEMENT_TIME_WAIT)) {
-            this.click(retryTimes - 1);
+        final long start = System.nanoTime();
+        for (int attempt = 1; attempt <= retryTimes; attempt++) {
+            final long attemptStart = System.nanoTime();
+            this.click();
+            if (this.waitForDisappear(MINIMUM_ELEMENT_TIME_WAIT)) {
+                if (attempt > 1) {
+                    RetryPolicy.record(this.toString(), "click until disappear", attempt - 1,
+                            attemptStart - start, false);
+                }
+                return;
+            }
         }
+        RetryPolicy.record(this.toString(), "click until disappear",
+                Math.max(0, retryTimes - 1), System.nanoTime() - start, true);
+        throw new RuntimeException("Element is still visible after multiple attempt");
     }
 
     /**
@@ -80,12 +87,14 @@ public class Clickable
      */
     public void click(final int x, final int y) {
         try {
-            this.log.debug("Wait for click on '{}'", this.getLocator().toString());
-            new Actions(this.getWebDriver()).moveToElement(this.getElement(), x, y).click().build().perform();
+            this.log.debug("Wait for click on '{}'", this);
+            this.recordAction("click with offset", () -> this.runRetryingStale("click with offset",
+                    () -> new Actions(this.getWebDriver()).moveToElement(this.getElement(), x, y).click().build()
+                            .perform()));
         } catch (final Exception e) {
-            this.log.error("Exception occurred when click on '{}'",
-                    this.getLocator().toString(),
-                    e);
+            this.log.error("Exception occurred when click on '{}': {}",
+                    this,
+                    LogHelper.summarize(e));
             throw e;
         }
     }
@@ -95,12 +104,13 @@ public class Clickable
      */
     public void clickByJs() {
         try {
-            this.log.debug("Wait for click on '{}'", this.getLocator().toString());
-            this.jsExecutor().executeScript("arguments[0].click();", this.getElement());
+            this.log.debug("Wait for click on '{}'", this);
+            this.recordAction("click by js", () -> this.runRetryingStale("click by js",
+                    () -> this.jsExecutor().executeScript("arguments[0].click();", this.getElement())));
         } catch (final Exception e) {
-            this.log.error("Exception occurred when click on '{}'",
-                    this.getLocator().toString(),
-                    e);
+            this.log.error("Exception occurred when click on '{}': {}",
+                    this,
+                    LogHelper.summarize(e));
             throw e;
         }
     }
@@ -110,12 +120,13 @@ public class Clickable
      */
     public void doubleClick() {
         try {
-            this.log.debug("Wait for double click on '{}'", this.getLocator().toString());
-            new Actions(this.getWebDriver()).doubleClick(this.getElement()).build().perform();
+            this.log.debug("Wait for double click on '{}'", this);
+            this.recordAction("double click", () -> this.runRetryingStale("double click",
+                    () -> new Actions(this.getWebDriver()).doubleClick(this.getElement()).build().perform()));
         } catch (final Exception e) {
-            this.log.error("Exception occurred when double click on '{}'",
-                    this.getLocator().toString(),
-                    e);
+            this.log.error("Exception occurred when double click on '{}': {}",
+                    this,
+                    LogHelper.summarize(e));
             throw e;
         }
     }
@@ -0,0 +1,43 @@
+package com.fundingsocieties.controls;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+
+/**
+ * Create controls of a given class from a locator, the constructor of each class is looked up once then called
+ * through a {@link MethodHandle}
+ */
+final class ControlFactory {
+    private static final ClassValue<MethodHandle> CONSTRUCTORS = new ClassValue<MethodHandle>() {
+        @Override
+        protected MethodHandle computeValue(final Class<?> type) {
+            try {
+                final Constructor<?> ctor = type.getDeclaredConstructor(String.class);
+                ctor.setAccessible(true);
+                return MethodHandles.lookup().unreflectConstructor(ctor);
+            } catch (final ReflectiveOperationException e) {
+                throw new IllegalArgumentException(type.getName() + " has no constructor taking a locator", e);
+            }
+        }
+    };
+
+    private ControlFactory() {
+    }
+
+    /**
+     * @param clazz   control class, must have a constructor taking a locator
+     * @param locator locator of the control
+     * @param <T>     control class
+     * @return new control
+     */
+    static <T extends BaseControl> T create(final Class<T> clazz, final String locator) {
+        try {
+            return clazz.cast(CONSTRUCTORS.get(clazz).invoke(locator));
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable e) {
+            throw new IllegalStateException("Unable to create " + clazz.getName(), e);
+        }
+    }
+}
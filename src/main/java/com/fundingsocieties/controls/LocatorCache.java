@@ -0,0 +1,51 @@
+package com.fundingsocieties.controls;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shared, bounded and thread-safe cache of parsed locators.
+ * Dynamic locators are keyed by (template, args) so the same value doesn't go through
+ * {@link String#format} and the locator grammar again.
+ */
+final class LocatorCache {
+    private static final int MAX_ENTRIES = 10_000;
+    private static final Map<Object, ResolvedLocator> CACHE =
+            Collections.synchronizedMap(new LinkedHashMap<Object, ResolvedLocator>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<Object, ResolvedLocator> eldest) {
+                    return this.size() > MAX_ENTRIES;
+                }
+            });
+
+    private LocatorCache() {
+    }
+
+    static ResolvedLocator resolve(final String locator) {
+        final ResolvedLocator cached = CACHE.get(locator);
+        return cached != null ? cached : put(locator, ResolvedLocator.parse(locator));
+    }
+
+    static ResolvedLocator resolve(final String template, final Object... args) {
+        final Object key = Arrays.asList("format", template, Arrays.asList(args.clone()));
+        final ResolvedLocator cached = CACHE.get(key);
+        return cached != null ? cached : put(key, resolve(String.format(template, args)));
+    }
+
+    static ResolvedLocator resolveFull(final String parentLocator, final String childLocator) {
+        final Object key = Arrays.asList("full", parentLocator, childLocator);
+        final ResolvedLocator cached = CACHE.get(key);
+        return cached != null ? cached
+                : put(key, ResolvedLocator.combine(resolve(parentLocator), resolve(childLocator)));
+    }
+
+    /**
+     * Parsing is side-effect free, so two threads resolving the same key at once is harmless
+     */
+    private static ResolvedLocator put(final Object key, final ResolvedLocator resolvedLocator) {
+        CACHE.put(key, resolvedLocator);
+        return resolvedLocator;
+    }
+}
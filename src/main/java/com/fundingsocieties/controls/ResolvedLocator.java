@@ -0,0 +1,94 @@
+package com.fundingsocieties.controls;
+
+import lombok.Getter;
+import org.openqa.selenium.By;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A string locator parsed once into its type, body, {@link By} and xpath, see {@link LocatorCache}
+ */
+@Getter
+final class ResolvedLocator {
+    /**
+     * "type=body", the type is optional and xpath is the default
+     */
+    private static final Pattern LOCATOR_PATTERN = Pattern.compile("^([\\w\\s]*)=(.*)", Pattern.DOTALL);
+    private static final String CSS = "css";
+    private static final String XPATH = "xpath";
+
+    private final String stringLocator;
+    private final String type;
+    private final String body;
+    private final By by;
+    /**
+     * Equivalent xpath of the locator, null for css locators
+     */
+    private final String xpath;
+
+    private ResolvedLocator(final String stringLocator, final String type, final String body, final By by,
+                            final String xpath) {
+        this.stringLocator = stringLocator;
+        this.type = type;
+        this.body = body;
+        this.by = by;
+        this.xpath = xpath;
+    }
+
+    static ResolvedLocator parse(final String locator) {
+        final Matcher matcher = LOCATOR_PATTERN.matcher(locator);
+        final String type;
+        final String body;
+        if (matcher.matches()) {
+            type = matcher.group(1).trim().toLowerCase();
+            body = matcher.group(2).trim();
+        } else {
+            type = XPATH;
+            body = locator.trim();
+        }
+
+        switch (type) {
+            case CSS:
+                return new ResolvedLocator(locator, type, body, By.cssSelector(body), null);
+            case "id":
+                return new ResolvedLocator(locator, type, body, By.id(body), String.format("//*[@id='%s']", body));
+            case "class":
+                return new ResolvedLocator(locator, type, body, By.className(body),
+                        String.format("//*[@class='%s']", body));
+            case "link":
+                return new ResolvedLocator(locator, type, body, By.linkText(body),
+                        String.format("//a[text()='%s']", body));
+            case XPATH:
+                return new ResolvedLocator(locator, type, body, By.xpath(body), body);
+            case "text":
+                final String textXpath = String.format("//*[contains(text(), '%s')]", body);
+                return new ResolvedLocator(locator, type, body, By.xpath(textXpath), textXpath);
+            case "name":
+                return new ResolvedLocator(locator, type, body, By.name(body), String.format("//*[@name='%s']", body));
+            default:
+                throw new RuntimeException(String.format("Locator type: %s is not supported.", type));
+        }
+    }
+
+    /**
+     * Combine a parent and a child locator into a locator which can be used directly from Web Driver
+     */
+    static ResolvedLocator combine(final ResolvedLocator parent, final ResolvedLocator child) {
+        //currently, we don't support translation between css and another strategy
+        if (parent.isCss() != child.isCss()) {
+            throw new RuntimeException(
+                    "Can't find the full locator, if parent locator is css, "
+                            + "then child locator must also be css and vice versa");
+        } else if (parent.isCss()) {
+            return parse(String.format("css=%s %s", parent.getBody(), child.getBody()));
+        }
+        //child locator xpath start with a dot, remove them before combine locator
+        final String childXpath = child.getXpath().startsWith(".") ? child.getXpath().substring(1) : child.getXpath();
+        return parse("xpath=" + parent.getXpath() + childXpath);
+    }
+
+    boolean isCss() {
+        return CSS.equals(this.type);
+    }
+}
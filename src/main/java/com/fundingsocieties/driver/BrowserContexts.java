@@ -0,0 +1,463 @@
+package com.fundingsocieties.driver;
+
+import com.fundingsocieties.common.Constants;
+import com.fundingsocieties.common.LogHelper;
+import com.fundingsocieties.enums.BrowserProfile;
+import com.fundingsocieties.enums.TrafficMode;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.support.decorators.Decorated;
+import org.openqa.selenium.support.decorators.WebDriverDecorator;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Isolated sessions multiplexed in a few browsers: each session is a DevTools browser context of a shared Chromium
+ * browser, with its own cookies, storage and cache, instead of a browser process of its own.
+ * Up to {@link Constants#CONTEXTS_PER_BROWSER} contexts share a browser. A browser has a single WebDriver session, so
+ * the commands of its contexts are serialized, each one switching to the window of its context first.
+ * Asynchronous scripts are started with a synchronous script and their result is polled, so a context waiting for a
+ * page, e.g. for a tooltip to change, doesn't block the commands of the other contexts meanwhile.
+ * <p>
+ * Contexts don't have DevTools of their own, so the traffic can't be recorded or replayed, see
+ * {@link Constants#TRAFFIC_MODE}.
+ */
+@Slf4j
+public final class BrowserContexts {
+    private static final String BLANK_PAGE = "about:blank";
+    /**
+     * Run an asynchronous script, its callback stores the result in the page under the id given as first argument.
+     * The script is inlined, not evaluated, so the content security policy of the page doesn't block it
+     */
+    static final String START_ASYNC_SCRIPT_PREFIX = "var id=arguments[0];"
+            + "var results=window.__fsAsyncResults=window.__fsAsyncResults||{};results[id]={state:'pending'};"
+            + "var args=Array.prototype.slice.call(arguments,1);"
+            + "args.push(function(value){results[id]={state:'done',value:value};});"
+            + "try{(function(){";
+    static final String START_ASYNC_SCRIPT_SUFFIX = "\n}).apply(null,args);}"
+            + "catch(e){results[id]={state:'error',error:String(e&&e.message||e)};}";
+    /**
+     * [state, value, error] of the asynchronous script of the given id, "lost" if the page was unloaded meanwhile
+     */
+    static final String POLL_ASYNC_SCRIPT = "var results=window.__fsAsyncResults,result=results&&results[arguments[0]];"
+            + "if(!result){return ['lost',null,null];}"
+            + "if(result.state!=='pending'){delete results[arguments[0]];}"
+            + "return [result.state,result.value===undefined?null:result.value,result.error||null];";
+    private static final long ASYNC_POLL_INTERVAL_IN_MILLIS = 25;
+    private static final AtomicLong ASYNC_SCRIPT_IDS = new AtomicLong();
+    private static final Map<String, List<Host>> HOSTS = new HashMap<>();
+    private static final ThreadLocal<Context> CHECKED_OUT = new ThreadLocal<>();
+    /**
+     * Drivers of the contexts, by identity so the lookup doesn't send any command
+     */
+    private static final Set<WebDriver> CONTEXT_DRIVERS =
+            Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    private BrowserContexts() {
+    }
+
+    /**
+     * Start a browser up front, so the first contexts don't wait for it
+     *
+     * @param browser browser name, must be a Chromium browser, e.g. chrome, edge
+     * @param profile launch profile of the browser
+     */
+    public static void warmUp(final String browser, final BrowserProfile profile) {
+        checkTrafficMode();
+        synchronized (HOSTS) {
+            final List<Host> hosts = HOSTS.computeIfAbsent(browser + ":" + profile, key -> new ArrayList<>());
+            if (hosts.isEmpty()) {
+                hosts.add(new Host(browser, profile));
+            }
+        }
+        log.info("Browser contexts '{}' ({}) warmed up", browser, profile);
+    }
+
+    /**
+     * Open a new browser context and bind its driver to the current thread.
+     * A new browser is started if all the browsers already have {@link Constants#CONTEXTS_PER_BROWSER} contexts
+     *
+     * @param browser browser name, must be a Chromium browser, e.g. chrome, edge
+     * @param profile launch profile of the browser
+     */
+    public static void checkout(final String browser, final BrowserProfile profile) {
+        checkTrafficMode();
+        final Host host = acquireHost(browser, profile);
+        final Context context;
+        try {
+            context = host.createContext();
+        } catch (final RuntimeException e) {
+            log.warn("Unable to open a context in '{}', retire the browser: {}", browser, LogHelper.summarize(e));
+            host.retired = true;
+            releaseHost(host);
+            throw e;
+        }
+        try {
+            TrafficArchive.attach(context.driver);
+        } catch (final RuntimeException e) {
+            context.dispose();
+            throw e;
+        }
+        CHECKED_OUT.set(context);
+        DriverUtils.setDriver(context.driver);
+    }
+
+    /**
+     * Dispose the browser context of the current thread, with all its windows, cookies and storage
+     */
+    public static void release() {
+        final Context context = CHECKED_OUT.get();
+        CHECKED_OUT.remove();
+        DriverUtils.setDriver(null);
+        if (context != null) {
+            context.dispose();
+        }
+    }
+
+    /**
+     * Quit all browsers, should be called once all contexts are released
+     */
+    public static void shutdown() {
+        synchronized (HOSTS) {
+            for (final List<Host> hosts : HOSTS.values()) {
+                hosts.forEach(Host::quit);
+            }
+            HOSTS.clear();
+        }
+    }
+
+    /**
+     * @param driver driver
+     * @return True if the driver is the driver of a browser context, false otherwise
+     */
+    public static boolean isContextDriver(final WebDriver driver) {
+        return CONTEXT_DRIVERS.contains(driver);
+    }
+
+    /**
+     * Recording and replaying need the DevTools a context doesn't have, fail before any browser is started
+     */
+    private static void checkTrafficMode() {
+        if (Constants.TRAFFIC_MODE != TrafficMode.LIVE) {
+            throw new UnsupportedOperationException(String.format(
+                    "Traffic mode %s needs DevTools, not available in browser contexts, use the pool session mode",
+                    Constants.TRAFFIC_MODE));
+        }
+    }
+
+    private static Host acquireHost(final String browser, final BrowserProfile profile) {
+        synchronized (HOSTS) {
+            final List<Host> hosts = HOSTS.computeIfAbsent(browser + ":" + profile, key -> new ArrayList<>());
+            for (final Host host : hosts) {
+                if (!host.retired && host.contexts < Constants.CONTEXTS_PER_BROWSER) {
+                    host.contexts++;
+                    return host;
+                }
+            }
+            final Host host = new Host(browser, profile);
+            hosts.add(host);
+            host.contexts++;
+            log.info("Started '{}' browser #{} for contexts", browser, hosts.size());
+            return host;
+        }
+    }
+
+    private static void releaseHost(final Host host) {
+        synchronized (HOSTS) {
+            host.contexts--;
+            if (host.retired && host.contexts == 0) {
+                HOSTS.values().forEach(hosts -> hosts.remove(host));
+                host.quit();
+            }
+        }
+    }
+
+    /**
+     * Browser shared by contexts, with the window the commands currently go to
+     */
+    static final class Host {
+        private final String browser;
+        private final WebDriver driver;
+        private final Dimension windowSize;
+        /**
+         * Window of the default context, where the browser level commands go when no context window is selected
+         */
+        private final String homeHandle;
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private String currentHandle;
+        /**
+         * Number of open contexts, guarded by {@link #HOSTS}
+         */
+        private int contexts;
+        private boolean retired;
+
+        private Host(final String browser, final BrowserProfile profile) {
+            this(browser, DriverUtils.createDriver(browser, profile));
+        }
+
+        Host(final String browser, final WebDriver driver) {
+            this.browser = browser;
+            this.driver = driver;
+            if (!(this.driver instanceof HasCdp)) {
+                this.driver.quit();
+                throw new UnsupportedOperationException("Browser contexts need DevTools, not supported by "
+                        + browser);
+            }
+            this.homeHandle = this.driver.getWindowHandle();
+            this.currentHandle = this.homeHandle;
+            this.windowSize = this.driver.manage().window().getSize();
+        }
+
+        Context createContext() {
+            final String contextId = (String) this.cdp("Target.createBrowserContext", Collections.emptyMap())
+                    .get("browserContextId");
+            try {
+                final Map<String, Object> params = new HashMap<>();
+                params.put("url", BLANK_PAGE);
+                params.put("browserContextId", contextId);
+                params.put("newWindow", true);
+                //only used by headless browsers, which open new targets at 800x600 otherwise
+                params.put("width", this.windowSize.getWidth());
+                params.put("height", this.windowSize.getHeight());
+                final String targetId = (String) this.cdp("Target.createTarget", params).get("targetId");
+                final Context context = new Context(this, contextId, this.waitForHandle(targetId));
+                log.debug("Opened context {} in '{}'", contextId, this.browser);
+                return context;
+            } catch (final RuntimeException e) {
+                this.disposeContext(contextId);
+                throw e;
+            }
+        }
+
+        /**
+         * ChromeDriver names the windows after their DevTools target id
+         */
+        private String waitForHandle(final String targetId) {
+            this.lock.lock();
+            try {
+                return new WebDriverWait(this.driver, Duration.ofSeconds(Constants.LOW_TIMEOUT_IN_SECONDS))
+                        .until(driver -> driver.getWindowHandles().stream()
+                                .filter(handle -> isWindowOf(handle, targetId)).findFirst().orElse(null));
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private void disposeContext(final String contextId) {
+            this.lock.lock();
+            try {
+                this.cdp("Target.disposeBrowserContext", Collections.singletonMap("browserContextId", contextId));
+            } catch (final Exception e) {
+                log.warn("Exception occurred when disposing context {} of '{}': {}", contextId, this.browser,
+                        LogHelper.summarize(e));
+            } finally {
+                //the current window may have been one of the disposed context
+                this.currentHandle = null;
+                this.lock.unlock();
+            }
+        }
+
+        /**
+         * Send a browser level DevTools command, from the current window or the home window if it was closed
+         */
+        private Map<String, Object> cdp(final String command, final Map<String, Object> params) {
+            this.lock.lock();
+            try {
+                if (this.currentHandle == null) {
+                    this.switchTo(this.homeHandle);
+                }
+                return ((HasCdp) this.driver).executeCdpCommand(command, params);
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        /**
+         * Must be called with the lock held
+         */
+        private void switchTo(final String handle) {
+            if (!handle.equals(this.currentHandle)) {
+                this.driver.switchTo().window(handle);
+                this.currentHandle = handle;
+            }
+        }
+
+        private void quit() {
+            try {
+                NetworkTraffic.close(this.driver);
+                this.driver.quit();
+            } catch (final Exception e) {
+                log.warn("Exception occurred when quitting '{}' browser: {}", this.browser, LogHelper.summarize(e));
+            }
+        }
+
+        private static boolean isWindowOf(final String handle, final String targetId) {
+            return handle.equalsIgnoreCase(targetId) || handle.endsWith(targetId);
+        }
+    }
+
+    /**
+     * Browser context of a test, with the window its commands go to
+     */
+    static final class Context {
+        private final Host host;
+        private final String contextId;
+        final WebDriver driver;
+        private String windowHandle;
+        private boolean disposed;
+
+        private Context(final Host host, final String contextId, final String windowHandle) {
+            this.host = host;
+            this.contextId = contextId;
+            this.windowHandle = windowHandle;
+            this.driver = new ContextDecorator(this).decorate(host.driver);
+            CONTEXT_DRIVERS.add(this.driver);
+        }
+
+        /**
+         * Windows of this context only, the windows of the other contexts are not visible to its test
+         */
+        @SuppressWarnings("unchecked")
+        private Set<String> getWindowHandles() {
+            this.host.lock.lock();
+            try {
+                final Set<String> targetIds = new LinkedHashSet<>();
+                final List<Map<String, Object>> targets = (List<Map<String, Object>>) this.host
+                        .cdp("Target.getTargets", Collections.emptyMap()).get("targetInfos");
+                for (final Map<String, Object> target : targets) {
+                    if ("page".equals(target.get("type")) && this.contextId.equals(target.get("browserContextId"))) {
+                        targetIds.add((String) target.get("targetId"));
+                    }
+                }
+                final Set<String> handles = new LinkedHashSet<>();
+                for (final String handle : this.host.driver.getWindowHandles()) {
+                    if (targetIds.stream().anyMatch(targetId -> Host.isWindowOf(handle, targetId))) {
+                        handles.add(handle);
+                    }
+                }
+                return handles;
+            } finally {
+                this.host.lock.unlock();
+            }
+        }
+
+        synchronized void dispose() {
+            if (this.disposed) {
+                return;
+            }
+            this.disposed = true;
+            CONTEXT_DRIVERS.remove(this.driver);
+            this.host.disposeContext(this.contextId);
+            releaseHost(this.host);
+            log.debug("Disposed context {} of '{}'", this.contextId, this.host.browser);
+        }
+    }
+
+    /**
+     * Send every command of a context to its window, one context at a time
+     */
+    private static final class ContextDecorator extends WebDriverDecorator {
+        private final Context context;
+
+        private ContextDecorator(final Context context) {
+            this.context = context;
+        }
+
+        @Override
+        public Object call(final Decorated<?> target, final Method method, final Object[] args) throws Throwable {
+            final Object original = target.getOriginal();
+            final String name = method.getName();
+            if (method.getDeclaringClass() == HasDevTools.class || method.getDeclaringClass() == HasCdp.class) {
+                //the DevTools session of the browser is attached to another window
+                throw new UnsupportedOperationException("DevTools is not available in a browser context");
+            }
+            if (original instanceof WebDriver && "quit".equals(name)) {
+                this.context.dispose();
+                return null;
+            }
+            if (original instanceof WebDriver && "getWindowHandles".equals(name)) {
+                return this.context.getWindowHandles();
+            }
+            if (original instanceof JavascriptExecutor && "executeAsyncScript".equals(name)) {
+                return this.executeAsyncScript(target, method.getDeclaringClass().getMethod("executeScript",
+                        String.class, Object[].class), (String) args[0], (Object[]) args[1]);
+            }
+            return this.callInWindow(target, method, args);
+        }
+
+        /**
+         * Start the script, then poll its result with short scripts, the other contexts can send commands in between
+         */
+        private Object executeAsyncScript(final Decorated<?> target, final Method executeScript, final String script,
+                                          final Object[] args) throws Throwable {
+            final String id = String.valueOf(ASYNC_SCRIPT_IDS.incrementAndGet());
+            final Object[] startArgs = new Object[args.length + 1];
+            startArgs[0] = id;
+            System.arraycopy(args, 0, startArgs, 1, args.length);
+            this.callInWindow(target, executeScript,
+                    new Object[]{START_ASYNC_SCRIPT_PREFIX + script + START_ASYNC_SCRIPT_SUFFIX, startArgs});
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(Constants.SCRIPT_TIMEOUT_IN_SECONDS);
+            while (true) {
+                final List<?> result = (List<?>) this.callInWindow(target, executeScript,
+                        new Object[]{POLL_ASYNC_SCRIPT, new Object[]{id}});
+                switch ((String) result.get(0)) {
+                    case "done":
+                        return result.get(1);
+                    case "error":
+                        throw new JavascriptException((String) result.get(2));
+                    case "lost":
+                        throw new JavascriptException("Document unloaded while waiting for the result of the script");
+                    default:
+                        break;
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new ScriptTimeoutException(String.format("Script result not received in %s seconds",
+                            Constants.SCRIPT_TIMEOUT_IN_SECONDS));
+                }
+                TimeUnit.MILLISECONDS.sleep(ASYNC_POLL_INTERVAL_IN_MILLIS);
+            }
+        }
+
+        private Object callInWindow(final Decorated<?> target, final Method method, final Object[] args)
+                throws Throwable {
+            final Object original = target.getOriginal();
+            final String name = method.getName();
+            final Host host = this.context.host;
+            host.lock.lock();
+            try {
+                host.switchTo(this.context.windowHandle);
+                final Object result = super.call(target, method, args);
+                if (original instanceof WebDriver.TargetLocator && "window".equals(name)) {
+                    this.context.windowHandle = (String) args[0];
+                    host.currentHandle = this.context.windowHandle;
+                } else if (original instanceof WebDriver && "close".equals(name)) {
+                    host.currentHandle = null;
+                    this.context.getWindowHandles().stream().findFirst()
+                            .ifPresent(handle -> this.context.windowHandle = handle);
+                }
+                return result;
+            } finally {
+                host.lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.fundingsocieties.driver;
+
+import com.fundingsocieties.common.Constants;
+import com.fundingsocieties.common.FileHelper;
+import com.fundingsocieties.common.LatencyHistogram;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.support.decorators.Decorated;
+import org.openqa.selenium.support.decorators.WebDriverDecorator;
+import org.testng.ITestNGMethod;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency of every WebDriver command, per test, command and locator of the element the command was sent to.
+ * A summary with the p50/p95/p99 of each command is written to {@link Constants#COMMAND_TIMINGS_FOLDER} at the end of
+ * each test, slowest commands first.
+ */
+@Slf4j
+public final class CommandTimings {
+    private static final String[] SUMMARY_HEADER = {"Command", "Locator", "Count", "Total (ms)", "p50 (ms)",
+            "p95 (ms)", "p99 (ms)", "Max (ms)"};
+    private static final ThreadLocal<String> CURRENT_TEST = new ThreadLocal<>();
+    private static final Map<String, Map<String, LatencyHistogram>> TEST_HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicInteger> TEST_INVOCATIONS = new ConcurrentHashMap<>();
+    /**
+     * Locator each element was found with, keyed by the undecorated element
+     */
+    private static final Map<WebElement, String> ELEMENT_LOCATORS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private CommandTimings() {
+    }
+
+    /**
+     * Wrap the driver, so all its commands are timed
+     *
+     * @param driver driver to wrap
+     * @return timed driver
+     */
+    static WebDriver decorate(final WebDriver driver) {
+        if (!Constants.COMMAND_TIMINGS_ENABLED) {
+            return driver;
+        }
+        return new TimingDecorator().decorate(driver);
+    }
+
+    /**
+     * Start timing the commands of the current thread for the given test invocation, named like
+     * "com.fundingsocieties.TC001_Test.verify#1" so the same method of two classes or two invocations of a method
+     * running in parallel don't share their timings
+     *
+     * @param method test method
+     */
+    public static void startTest(final ITestNGMethod method) {
+        final String methodName = method.getRealClass().getName() + "." + method.getMethodName();
+        final String testName = methodName + "#"
+                + TEST_INVOCATIONS.computeIfAbsent(methodName, key -> new AtomicInteger()).incrementAndGet();
+        CURRENT_TEST.set(testName);
+        TEST_HISTOGRAMS.put(testName, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Stop timing the commands of the current thread and write the summary of the test
+     */
+    public static void endTest() {
+        final String testName = CURRENT_TEST.get();
+        CURRENT_TEST.remove();
+        if (testName == null) {
+            return;
+        }
+        final Map<String, LatencyHistogram> histograms = TEST_HISTOGRAMS.remove(testName);
+        if (histograms == null || histograms.isEmpty()) {
+            return;
+        }
+        final List<Map.Entry<String, LatencyHistogram>> entries = new ArrayList<>(histograms.entrySet());
+        entries.sort(Comparator.comparingLong(
+                (Map.Entry<String, LatencyHistogram> entry) -> entry.getValue().getTotalNanos()).reversed());
+        final List<String[]> lines = new ArrayList<>();
+        for (final Map.Entry<String, LatencyHistogram> entry : entries) {
+            final String[] key = entry.getKey().split("\t", 2);
+            final LatencyHistogram histogram = entry.getValue();
+            lines.add(new String[]{key[0], key[1], String.valueOf(histogram.getCount()),
+                    toMillis(histogram.getTotalNanos()), toMillis(histogram.getValueAtPercentile(50)),
+                    toMillis(histogram.getValueAtPercentile(95)), toMillis(histogram.getValueAtPercentile(99)),
+                    toMillis(histogram.getMaxNanos())});
+        }
+        FileHelper.createFolder(Constants.COMMAND_TIMINGS_FOLDER);
+        final String filePath = String.format("%s/%s.csv", Constants.COMMAND_TIMINGS_FOLDER, testName);
+        FileHelper.writeCsvFile(filePath, SUMMARY_HEADER, lines);
+        log.info("Command timings of '{}' written to {}", testName, filePath);
+    }
+
+    private static void record(final String command, final String locator, final long nanos) {
+        final String testName = CURRENT_TEST.get();
+        final Map<String, LatencyHistogram> histograms = testName == null ? null : TEST_HISTOGRAMS.get(testName);
+        if (histograms == null) {
+            return;
+        }
+        histograms.computeIfAbsent(command + "\t" + locator, key -> new LatencyHistogram()).record(nanos);
+    }
+
+    private static String toMillis(final long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static final class TimingDecorator extends WebDriverDecorator {
+        @Override
+        public Object call(final Decorated<?> target, final Method method, final Object[] args) throws Throwable {
+            final long start = System.nanoTime();
+            Object result = null;
+            try {
+                result = super.call(target, method, args);
+                return result;
+            } finally {
+                final long elapsed = System.nanoTime() - start;
+                final String locator = getLocator(target.getOriginal(), method, args);
+                record(method.getName(), locator, elapsed);
+                if (result != null && method.getName().startsWith("findElement")) {
+                    rememberLocator(result, locator);
+                }
+            }
+        }
+
+        private static String getLocator(final Object original, final Method method, final Object[] args) {
+            final String parentLocator = original instanceof WebElement ? ELEMENT_LOCATORS.get(original) : null;
+            if (args != null && args.length > 0 && args[0] instanceof By) {
+                return parentLocator == null ? args[0].toString() : parentLocator + " >> " + args[0];
+            }
+            if (parentLocator != null) {
+                return parentLocator;
+            }
+            return original instanceof WebElement ? "(element)" : "";
+        }
+
+        private static void rememberLocator(final Object result, final String locator) {
+            if (result instanceof WrapsElement) {
+                ELEMENT_LOCATORS.put(((WrapsElement) result).getWrappedElement(), locator);
+            } else if (result instanceof List) {
+                for (final Object element : (List<?>) result) {
+                    rememberLocator(element, locator);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.fundingsocieties.driver;
+
+import com.fundingsocieties.common.Constants;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import io.github.bonigarcia.wdm.online.HttpClient;
+import io.github.bonigarcia.wdm.versions.VersionDetector;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolve the driver binary of each browser once per JVM.
+ * Resolved binaries are recorded in an index file of {@link Constants#DRIVER_CACHE_FOLDER}, keyed by browser and
+ * browser version, so offline runs ({@link Constants#DRIVER_OFFLINE}) can use them without touching the network.
+ * Unless the version is pinned, it is the version of the installed browser, detected once per JVM, so a browser
+ * updated between runs gets its own driver instead of the one indexed for the previous version.
+ */
+@Slf4j
+final class DriverBinaries {
+    private static final String INDEX_FILE_NAME = "driver-index.properties";
+    private static final Map<String, String> RESOLVED = new ConcurrentHashMap<>();
+
+    private DriverBinaries() {
+    }
+
+    /**
+     * Make sure the driver binary of the browser is available and exported to its system property,
+     * e.g. "webdriver.chrome.driver"
+     *
+     * @param browser browser name, e.g. chrome, firefox, edge
+     * @throws IllegalStateException in offline mode, if the binary is not in the cache
+     */
+    static void setUp(final String browser) {
+        final String systemProperty = getSystemProperty(browser);
+        if (systemProperty == null) {
+            //safari driver comes with the OS
+            return;
+        }
+        final String driverPath = RESOLVED.computeIfAbsent(browser, key -> resolve(key, systemProperty));
+        System.setProperty(systemProperty, driverPath);
+    }
+
+    private static String resolve(final String browser, final String systemProperty) {
+        final String configuredPath = System.getProperty(systemProperty);
+        if (configuredPath != null && new File(configuredPath).canExecute()) {
+            log.info("Use '{}' driver from {}: {}", browser, systemProperty, configuredPath);
+            return configuredPath;
+        }
+
+        final WebDriverManager manager = getManager(browser).cachePath(Constants.DRIVER_CACHE_FOLDER);
+        final String browserVersion = getBrowserVersion(browser, manager);
+        final String indexKey = browser + "." + browserVersion;
+        final String cachedPath = browserVersion == null ? null : readIndex().getProperty(indexKey);
+        final boolean isCached = cachedPath != null && new File(cachedPath).canExecute();
+        if (Constants.DRIVER_OFFLINE) {
+            if (!isCached) {
+                throw new IllegalStateException(String.format("Offline mode: no '%s' driver in %s for browser "
+                                + "version '%s'. Run once online, pin the version with -DbrowserVersion, or set -D%s "
+                                + "to the driver binary", browser,
+                        new File(Constants.DRIVER_CACHE_FOLDER, INDEX_FILE_NAME).getAbsolutePath(),
+                        browserVersion == null ? "not detected" : browserVersion, systemProperty));
+            }
+            log.info("Offline mode, use cached '{}' driver for browser {}: {}", browser, browserVersion, cachedPath);
+            return cachedPath;
+        }
+        if (isCached) {
+            log.info("Use cached '{}' driver for browser {}: {}", browser, browserVersion, cachedPath);
+            return cachedPath;
+        }
+
+        if (browserVersion != null) {
+            manager.browserVersion(browserVersion);
+        }
+        manager.setup();
+        final String driverPath = manager.getDownloadedDriverPath();
+        log.info("Resolved '{}' driver {}: {}", browser, manager.getDownloadedDriverVersion(), driverPath);
+        if (browserVersion != null) {
+            writeIndex(indexKey, driverPath);
+        }
+        return driverPath;
+    }
+
+    /**
+     * @return pinned browser version, or version of the installed browser, null if it can't be detected
+     */
+    private static String getBrowserVersion(final String browser, final WebDriverManager manager) {
+        if (!Constants.INSTALLED_BROWSER_VERSION.equals(Constants.BROWSER_VERSION)) {
+            return Constants.BROWSER_VERSION;
+        }
+        try (HttpClient httpClient = new HttpClient(manager.config())) {
+            //detection runs the browser with its version flag, or reads the registry, the network is not used
+            final String version = new VersionDetector(manager.config(), httpClient)
+                    .getBrowserVersionFromTheShell(manager.getDriverManagerType().getBrowserNameLowerCase())
+                    .orElse(null);
+            log.info("Installed '{}' browser version: {}", browser, version);
+            return version;
+        } catch (final Exception e) {
+            log.warn("Unable to detect the installed '{}' browser version: {}", browser, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String getSystemProperty(final String browser) {
+        switch (browser) {
+            case "firefox":
+                return "webdriver.gecko.driver";
+            case "edge":
+                return "webdriver.edge.driver";
+            case "safari":
+                return null;
+            default:
+                return "webdriver.chrome.driver";
+        }
+    }
+
+    private static WebDriverManager getManager(final String browser) {
+        switch (browser) {
+            case "firefox":
+                return WebDriverManager.firefoxdriver();
+            case "edge":
+                return WebDriverManager.edgedriver();
+            default:
+                return WebDriverManager.chromedriver();
+        }
+    }
+
+    private static synchronized Properties readIndex() {
+        final Properties index = new Properties();
+        final File indexFile = new File(Constants.DRIVER_CACHE_FOLDER, INDEX_FILE_NAME);
+        if (indexFile.exists()) {
+            try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+                //shared lock, so the index is not read while another fork rewrites it
+                final FileLock lock = channel.lock(0, Long.MAX_VALUE, true);
+                try {
+                    index.load(Channels.newInputStream(channel));
+                } finally {
+                    lock.release();
+                }
+            } catch (final IOException e) {
+                log.warn("Unable to read driver index '{}': {}", indexFile, e.getMessage());
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Add the entry to the index read again under a file lock, so forks resolving drivers at the same time don't
+     * overwrite the entries of each other
+     */
+    private static synchronized void writeIndex(final String key, final String driverPath) {
+        final File indexFile = new File(Constants.DRIVER_CACHE_FOLDER, INDEX_FILE_NAME);
+        indexFile.getParentFile().mkdirs();
+        try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final FileLock lock = channel.lock();
+            try {
+                final Properties index = new Properties();
+                index.load(Channels.newInputStream(channel));
+                index.setProperty(key, driverPath);
+                channel.truncate(0);
+                channel.position(0);
+                index.store(Channels.newOutputStream(channel),
+                        "Resolved driver binaries, <browser>.<browser version>=<driver path>");
+            } finally {
+                lock.release();
+            }
+        } catch (final IOException e) {
+            log.warn("Unable to write driver index '{}': {}", indexFile, e.getMessage());
+        }
+    }
+}
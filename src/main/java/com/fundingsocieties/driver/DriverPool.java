@@ -0,0 +1,260 @@
+package com.fundingsocieties.driver;
+
+import com.fundingsocieties.common.Constants;
+import com.fundingsocieties.enums.BrowserProfile;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pool of started browsers, so a test can reuse a warm session instead of launching a new browser.
+ * A session is reset when it is returned, and quit after {@link Constants#DRIVER_POOL_MAX_USES} uses,
+ * when the test failed or when it doesn't pass the health check.
+ * <p>
+ * Chromium browsers are reset through DevTools: all cookies, the cache and the storage of every origin the windows
+ * navigated to are cleared. Other browsers can only clear the cookies and storage of the page loaded at the reset,
+ * so the data of the other origins a test visited is kept for the next test.
+ */
+@Slf4j
+public final class DriverPool {
+    private static final String BLANK_PAGE = "about:blank";
+    private static final String CLEAR_STORAGE_SCRIPT = "try{window.localStorage.clear();}catch(e){}"
+            + "try{window.sessionStorage.clear();}catch(e){}";
+    private static final Map<String, DriverPool> POOLS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<PooledSession> CHECKED_OUT = new ThreadLocal<>();
+
+    private final String browser;
+    private final BrowserProfile profile;
+    private final int maxUses;
+    private final Semaphore livePermits;
+    private final BlockingQueue<PooledSession> idleSessions = new LinkedBlockingQueue<>();
+
+    private DriverPool(final String browser, final BrowserProfile profile, final int capacity, final int maxUses) {
+        this.browser = browser;
+        this.profile = profile;
+        this.maxUses = maxUses;
+        this.livePermits = new Semaphore(capacity);
+    }
+
+    private static DriverPool of(final String browser, final BrowserProfile profile) {
+        return POOLS.computeIfAbsent(browser + ":" + profile, key -> new DriverPool(browser, profile,
+                Constants.DRIVER_POOL_SIZE, Constants.DRIVER_POOL_MAX_USES));
+    }
+
+    /**
+     * Start browsers up front until the pool holds the given number of sessions
+     *
+     * @param browser browser name, e.g. chrome, firefox, safari, edge
+     * @param profile launch profile of the browsers
+     * @param count   number of sessions to keep ready, capped by the pool size
+     */
+    @SneakyThrows
+    public static void warmUp(final String browser, final BrowserProfile profile, final int count) {
+        final DriverPool pool = of(browser, profile);
+        final List<Future<?>> startups = new ArrayList<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, count));
+        try {
+            for (int i = 0; i < count && pool.livePermits.tryAcquire(); i++) {
+                startups.add(executor.submit(() -> pool.idleSessions.offer(pool.createSession())));
+            }
+            for (final Future<?> startup : startups) {
+                startup.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        log.info("Driver pool '{}' ({}) warmed up with {} session(s)", browser, profile, startups.size());
+    }
+
+    /**
+     * Take a session from the pool and bind it to the current thread.
+     * A new browser is started if the pool is not full yet, otherwise this waits until a session is returned or a
+     * recycled session frees a place in the pool.
+     *
+     * @param browser browser name, e.g. chrome, firefox, safari, edge
+     * @param profile launch profile of the browser
+     */
+    @SneakyThrows
+    public static void checkout(final String browser, final BrowserProfile profile) {
+        final DriverPool pool = of(browser, profile);
+        PooledSession session = pool.idleSessions.poll();
+        while (session == null) {
+            if (pool.livePermits.tryAcquire()) {
+                session = pool.createSession();
+            } else {
+                //a recycled session gives its place back without offering a session, so try to start one again
+                session = pool.idleSessions.poll(Constants.DRIVER_POOL_POLL_INTERVAL_IN_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+        try {
+            //interception is reset with the session, the archive must be the first filter of the test
+            TrafficArchive.attach(session.driver);
+        } catch (final RuntimeException e) {
+            pool.destroy(session);
+            throw e;
+        }
+        CHECKED_OUT.set(session);
+        DriverUtils.setDriver(session.driver);
+    }
+
+    /**
+     * Return the session of the current thread to the pool
+     *
+     * @param failed true if the test failed, the session is quit instead of being reused
+     */
+    public static void release(final boolean failed) {
+        final PooledSession session = CHECKED_OUT.get();
+        CHECKED_OUT.remove();
+        DriverUtils.setDriver(null);
+        if (session == null) {
+            return;
+        }
+        session.pool.giveBack(session, failed);
+    }
+
+    /**
+     * Quit all idle sessions of all pools
+     */
+    public static void shutdown() {
+        for (final DriverPool pool : POOLS.values()) {
+            PooledSession session;
+            while ((session = pool.idleSessions.poll()) != null) {
+                pool.destroy(session);
+            }
+        }
+    }
+
+    /**
+     * Must be called with a permit, which is released if the browser fails to start
+     */
+    private PooledSession createSession() {
+        try {
+            return new PooledSession(this, DriverUtils.createDriver(this.browser, this.profile));
+        } catch (final RuntimeException e) {
+            this.livePermits.release();
+            throw e;
+        }
+    }
+
+    private void giveBack(final PooledSession session, final boolean failed) {
+        session.uses++;
+        if (failed || session.uses >= this.maxUses || !this.reset(session)) {
+            log.info("Recycle '{}' session after {} use(s), failed: {}", this.browser, session.uses, failed);
+            this.destroy(session);
+            return;
+        }
+        this.idleSessions.offer(session);
+    }
+
+    /**
+     * Clear cookies and storage, then park the session on a blank page
+     *
+     * @return True if the session is healthy after the reset, false otherwise
+     */
+    private boolean reset(final PooledSession session) {
+        try {
+            final WebDriver driver = session.driver;
+            NetworkTraffic.close(driver);
+            final Set<String> origins = new LinkedHashSet<>();
+            final String mainWindow = driver.getWindowHandles().iterator().next();
+            for (final String handle : driver.getWindowHandles()) {
+                driver.switchTo().window(handle);
+                origins.addAll(getVisitedOrigins(driver));
+                if (!handle.equals(mainWindow)) {
+                    driver.close();
+                }
+            }
+            driver.switchTo().window(mainWindow);
+            ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+            driver.manage().deleteAllCookies();
+            if (driver instanceof HasCdp) {
+                clearBrowsingData((HasCdp) driver, origins);
+            }
+            driver.navigate().to(BLANK_PAGE);
+            return BLANK_PAGE.equals(driver.getCurrentUrl());
+        } catch (final Exception e) {
+            log.warn("Session of '{}' failed to reset: {}", this.browser, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @return origins of the navigation history of the current window, empty if the browser has no DevTools
+     */
+    @SuppressWarnings("unchecked")
+    private static Set<String> getVisitedOrigins(final WebDriver driver) {
+        final Set<String> origins = new LinkedHashSet<>();
+        if (!(driver instanceof HasCdp)) {
+            return origins;
+        }
+        final Map<String, Object> history = ((HasCdp) driver).executeCdpCommand("Page.getNavigationHistory",
+                Collections.emptyMap());
+        for (final Map<String, Object> entry : (List<Map<String, Object>>) history.get("entries")) {
+            try {
+                final URI uri = URI.create(String.valueOf(entry.get("url")));
+                if ("http".equals(uri.getScheme()) || "https".equals(uri.getScheme())) {
+                    origins.add(uri.getScheme() + "://" + uri.getRawAuthority());
+                }
+            } catch (final IllegalArgumentException e) {
+                log.debug("Skip the origin of '{}': {}", entry.get("url"), e.getMessage());
+            }
+        }
+        return origins;
+    }
+
+    /**
+     * Clear the cookies and cache of all origins, and the storage (local and session storage, IndexedDB, cache
+     * storage, service workers...) of the given origins
+     */
+    private static void clearBrowsingData(final HasCdp driver, final Set<String> origins) {
+        driver.executeCdpCommand("Network.clearBrowserCookies", Collections.emptyMap());
+        driver.executeCdpCommand("Network.clearBrowserCache", Collections.emptyMap());
+        for (final String origin : origins) {
+            final Map<String, Object> params = new HashMap<>();
+            params.put("origin", origin);
+            params.put("storageTypes", "all");
+            driver.executeCdpCommand("Storage.clearDataForOrigin", params);
+        }
+    }
+
+    private void destroy(final PooledSession session) {
+        try {
+            NetworkTraffic.close(session.driver);
+            session.driver.quit();
+        } catch (final Exception e) {
+            log.warn("Exception occurred when quitting '{}' session: {}", this.browser, e.getMessage());
+        } finally {
+            this.livePermits.release();
+        }
+    }
+
+    private static final class PooledSession {
+        private final DriverPool pool;
+        private final WebDriver driver;
+        private int uses;
+
+        private PooledSession(final DriverPool pool, final WebDriver driver) {
+            this.pool = pool;
+            this.driver = driver;
+        }
+    }
+}
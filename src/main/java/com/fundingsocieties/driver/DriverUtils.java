@@ -1,53 +1,276 @@
 package com.fundingsocieties.driver;
 
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.fundingsocieties.common.Constants;
+import com.fundingsocieties.common.HighChartHelper;
+import com.fundingsocieties.enums.BrowserProfile;
+import com.fundingsocieties.enums.SessionMode;
 import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.Dimension;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.Point;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.devtools.HasDevTools;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
 import org.openqa.selenium.safari.SafariDriver;
+import org.openqa.selenium.safari.SafariOptions;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 public class DriverUtils {
-    private static WebDriver driver;
+    /**
+     * Driver of the current worker thread, so tests can run in parallel without sharing the browser
+     */
+    private static final ThreadLocal<WebDriver> THREAD_DRIVER = new ThreadLocal<>();
+    /**
+     * Drivers registered under an explicit key, see {@link com.fundingsocieties.controls.BaseControl#getDriverKey()}
+     */
+    private static final Map<String, WebDriver> KEYED_DRIVERS = new ConcurrentHashMap<>();
 
+    /**
+     * Start a browser and bind it to the current thread
+     *
+     * @param browser browser name, e.g. chrome, firefox, safari, edge
+     */
     public static void startBrowser(final String browser) {
+        startBrowser(browser, BrowserProfile.DEFAULT);
+    }
+
+    /**
+     * Start a browser with the given launch profile and bind it to the current thread
+     *
+     * @param browser browser name, e.g. chrome, firefox, safari, edge
+     * @param profile launch profile
+     */
+    public static void startBrowser(final String browser, final BrowserProfile profile) {
+        THREAD_DRIVER.set(createDriver(browser, profile));
+    }
+
+    /**
+     * Start a browser and register it under the given key, so it can be shared between threads
+     *
+     * @param browser   browser name, e.g. chrome, firefox, safari, edge
+     * @param driverKey key to register the driver with
+     */
+    public static void startBrowser(final String browser, final String driverKey) {
+        KEYED_DRIVERS.put(driverKey, createDriver(browser, BrowserProfile.DEFAULT));
+    }
+
+    /**
+     * Bind an already started driver to the current thread
+     *
+     * @param driver driver to bind, null to unbind
+     */
+    public static void setDriver(final WebDriver driver) {
+        if (driver == null) {
+            THREAD_DRIVER.remove();
+        } else {
+            THREAD_DRIVER.set(driver);
+        }
+    }
+
+    /**
+     * Start the browsers of the given browser up front, according to {@link Constants#SESSION_MODE}
+     *
+     * @param browser browser name, e.g. chrome, firefox, safari, edge
+     * @param profile launch profile of the browsers
+     */
+    public static void warmUpSessions(final String browser, final BrowserProfile profile) {
+        if (Constants.SESSION_MODE == SessionMode.CONTEXT) {
+            BrowserContexts.warmUp(browser, profile);
+        } else {
+            DriverPool.warmUp(browser, profile, Constants.DRIVER_POOL_SIZE);
+        }
+    }
+
+    /**
+     * Open a session for the current thread, according to {@link Constants#SESSION_MODE}: a pooled browser or a
+     * browser context of a shared browser
+     *
+     * @param browser browser name, e.g. chrome, firefox, safari, edge
+     * @param profile launch profile of the browser
+     */
+    public static void openSession(final String browser, final BrowserProfile profile) {
+        if (Constants.SESSION_MODE == SessionMode.CONTEXT) {
+            BrowserContexts.checkout(browser, profile);
+        } else {
+            DriverPool.checkout(browser, profile);
+        }
+    }
+
+    /**
+     * Close the session of the current thread, opened by {@link #openSession}
+     *
+     * @param failed true if the test failed, a pooled browser is quit instead of being reused
+     */
+    public static void closeSession(final boolean failed) {
+        if (Constants.SESSION_MODE == SessionMode.CONTEXT) {
+            BrowserContexts.release();
+        } else {
+            DriverPool.release(failed);
+        }
+    }
+
+    /**
+     * Quit all browsers started for the sessions
+     */
+    public static void closeAllSessions() {
+        if (Constants.SESSION_MODE == SessionMode.CONTEXT) {
+            BrowserContexts.shutdown();
+        } else {
+            DriverPool.shutdown();
+        }
+    }
+
+    /**
+     * @param driver driver
+     * @return True if DevTools can be used through the driver, false otherwise, e.g. for the driver of a browser
+     * context, whose browser DevTools session is attached to another window
+     */
+    public static boolean supportsDevTools(final WebDriver driver) {
+        return driver instanceof HasDevTools && !BrowserContexts.isContextDriver(driver);
+    }
+
+    static WebDriver createDriver(final String browser, final BrowserProfile profile) {
+        final WebDriver driver = newDriver(browser, profile);
+        if (profile.hasViewport()) {
+            driver.manage().window().setSize(new Dimension(profile.getViewportWidth(), profile.getViewportHeight()));
+        } else {
+            driver.manage().window().maximize();
+        }
+        //async scripts, e.g. BaseControl#waitForTextChange, wait on page events up to this timeout
+        driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(Constants.SCRIPT_TIMEOUT_IN_SECONDS));
+        HighChartHelper.installRenderHook(driver);
+        return CommandTimings.decorate(driver);
+    }
+
+    private static WebDriver newDriver(final String browser, final BrowserProfile profile) {
         switch (browser) {
             case "chrome":
-                WebDriverManager.chromedriver().setup();
-                driver = new ChromeDriver();
-                break;
+                DriverBinaries.setUp("chrome");
+                return new ChromeDriver(applyProfile(new ChromeOptions(), profile));
 
             case "firefox":
-                WebDriverManager.firefoxdriver().setup();
-                driver = new FirefoxDriver();
-                break;
+                DriverBinaries.setUp("firefox");
+                return new FirefoxDriver(applyProfile(new FirefoxOptions(), profile));
 
             case "safari":
-                WebDriverManager.safaridriver().setup();
-                driver = new SafariDriver();
-                break;
+                DriverBinaries.setUp("safari");
+                //safari has no headless mode and no launch arguments
+                final SafariOptions safariOptions = new SafariOptions();
+                safariOptions.setPageLoadStrategy(profile.getPageLoadStrategy());
+                return new SafariDriver(safariOptions);
             case "edge":
-                WebDriverManager.edgedriver().setup();
-                driver = new EdgeDriver();
-                break;
+                DriverBinaries.setUp("edge");
+                return new EdgeDriver(applyProfile(new EdgeOptions(), profile));
 
             default:
                 System.out.println("Browser: " + browser + " is invalid, Launching Chrome as browser of choice...");
-                driver = new ChromeDriver();
+                DriverBinaries.setUp("chrome");
+                return new ChromeDriver(applyProfile(new ChromeOptions(), profile));
         }
     }
 
+    private static <T extends ChromiumOptions<?>> T applyProfile(final T options, final BrowserProfile profile) {
+        options.setHeadless(profile.isHeadless());
+        options.setPageLoadStrategy(profile.getPageLoadStrategy());
+        if (profile.hasViewport()) {
+            options.addArguments(String.format("--window-size=%s,%s", profile.getViewportWidth(),
+                    profile.getViewportHeight()));
+        }
+        if (profile.isBackgroundFeaturesDisabled()) {
+            options.addArguments("--disable-gpu", "--disable-extensions", "--disable-background-networking",
+                    "--disable-dev-shm-usage");
+        }
+        if (Constants.SESSION_MODE == SessionMode.CONTEXT) {
+            //windows of the contexts which are not focused must keep running their timers and rendering
+            options.addArguments("--disable-background-timer-throttling", "--disable-backgrounding-occluded-windows",
+                    "--disable-renderer-backgrounding");
+        }
+        if (profile.isImagesBlocked()) {
+            options.setExperimentalOption("prefs",
+                    Collections.singletonMap("profile.managed_default_content_settings.images", 2));
+        }
+        return options;
+    }
+
+    private static FirefoxOptions applyProfile(final FirefoxOptions options, final BrowserProfile profile) {
+        options.setHeadless(profile.isHeadless());
+        options.setPageLoadStrategy(profile.getPageLoadStrategy());
+        if (profile.hasViewport()) {
+            options.addArguments("--width=" + profile.getViewportWidth(), "--height=" + profile.getViewportHeight());
+        }
+        if (profile.isBackgroundFeaturesDisabled()) {
+            options.addPreference("layers.acceleration.disabled", true);
+            options.addPreference("extensions.update.enabled", false);
+            options.addPreference("app.update.enabled", false);
+            options.addPreference("network.prefetch-next", false);
+        }
+        if (profile.isImagesBlocked()) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        return options;
+    }
+
+    /**
+     * Get the driver bound to the current thread
+     *
+     * @return driver of the current thread, null if no browser was started on this thread
+     */
     public static WebDriver getDriver() {
-        return driver;
+        return THREAD_DRIVER.get();
+    }
+
+    /**
+     * Get the driver registered under the given key
+     *
+     * @param driverKey key the driver was registered with, null means the driver of the current thread
+     * @return registered driver
+     */
+    public static WebDriver getDriver(final String driverKey) {
+        if (driverKey == null) {
+            return getDriver();
+        }
+        return KEYED_DRIVERS.get(driverKey);
+    }
+
+    /**
+     * Quit the driver bound to the current thread and unbind it
+     */
+    public static void quit() {
+        final WebDriver driver = THREAD_DRIVER.get();
+        THREAD_DRIVER.remove();
+        if (driver != null) {
+            NetworkTraffic.close(driver);
+            driver.quit();
+        }
+    }
+
+    /**
+     * Quit the driver registered under the given key and unregister it
+     *
+     * @param driverKey key the driver was registered with
+     */
+    public static void quit(final String driverKey) {
+        final WebDriver driver = KEYED_DRIVERS.remove(driverKey);
+        if (driver != null) {
+            NetworkTraffic.close(driver);
+            driver.quit();
+        }
     }
 
     public static Object execJavaScript(final String script, final Object... obj) {
-        return ((JavascriptExecutor) driver).executeScript(script, obj);
+        return ((JavascriptExecutor) getDriver()).executeScript(script, obj);
     }
 
     /**
@@ -58,7 +281,7 @@ public class DriverUtils {
     public static void scrollTo(final Point targetPoint) {
         try {
             log.info(String.format("Scroll to %s - %s", targetPoint.getX(), targetPoint.getY()));
-            final JavascriptExecutor js = (JavascriptExecutor) driver;
+            final JavascriptExecutor js = (JavascriptExecutor) getDriver();
             js.executeScript(String.format("window.scrollTo(%s, %s)", targetPoint.getX(), targetPoint.getY()));
         } catch (final Exception e) {
             log.warn("Exception occurred when scrolling to '{}': {}", targetPoint, e);
@@ -0,0 +1,99 @@
+package com.fundingsocieties.driver;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Network interception of a driver through DevTools, shared by all the features that need to see or change the
+ * traffic of the browser. A browser can only have one interceptor, so filters are registered here.
+ * A filter wraps the ones added before it, so it sees the request first and the response last.
+ */
+@Slf4j
+public final class NetworkTraffic {
+    private static final Map<WebDriver, NetworkTraffic> TRAFFICS = new ConcurrentHashMap<>();
+
+    private final WebDriver driver;
+    private final List<Filter> filters = new CopyOnWriteArrayList<>();
+    private NetworkInterceptor interceptor;
+
+    private NetworkTraffic(final WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * @param driver driver
+     * @return True if the traffic of the driver can be intercepted, false otherwise
+     */
+    public static boolean isSupported(final WebDriver driver) {
+        return DriverUtils.supportsDevTools(driver);
+    }
+
+    /**
+     * Get the traffic of the driver
+     *
+     * @param driver driver, must support DevTools
+     * @return traffic of the driver
+     */
+    public static NetworkTraffic of(final WebDriver driver) {
+        if (!isSupported(driver)) {
+            throw new UnsupportedOperationException("Network interception needs DevTools, not supported by "
+                    + driver.getClass().getSimpleName());
+        }
+        return TRAFFICS.computeIfAbsent(driver, NetworkTraffic::new);
+    }
+
+    /**
+     * Stop intercepting the traffic of the driver, should be called before the driver quits
+     *
+     * @param driver driver
+     */
+    public static void close(final WebDriver driver) {
+        final NetworkTraffic traffic = TRAFFICS.remove(driver);
+        if (traffic != null) {
+            traffic.stopInterceptor();
+        }
+    }
+
+    public synchronized void addFilter(final Filter filter) {
+        this.filters.add(filter);
+        if (this.interceptor == null) {
+            this.interceptor = new NetworkInterceptor(this.driver, (Filter) this::applyFilters);
+            log.debug("Network interception started");
+        }
+    }
+
+    public synchronized void removeFilter(final Filter filter) {
+        this.filters.remove(filter);
+        if (this.filters.isEmpty()) {
+            this.stopInterceptor();
+        }
+    }
+
+    private HttpHandler applyFilters(final HttpHandler browser) {
+        HttpHandler handler = browser;
+        for (final Filter filter : this.filters) {
+            handler = filter.apply(handler);
+        }
+        return handler;
+    }
+
+    private synchronized void stopInterceptor() {
+        if (this.interceptor == null) {
+            return;
+        }
+        try {
+            this.interceptor.close();
+        } catch (final Exception e) {
+            log.warn("Exception occurred when stopping network interception: {}", e.getMessage());
+        }
+        this.interceptor = null;
+    }
+}
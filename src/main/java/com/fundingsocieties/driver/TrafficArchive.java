@@ -0,0 +1,207 @@
+package com.fundingsocieties.driver;
+
+import com.fundingsocieties.common.Constants;
+import com.fundingsocieties.enums.TrafficMode;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.File;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Record the traffic of all browsers to a HAR-like archive, or serve the browsers from the archive only, see
+ * {@link Constants#TRAFFIC_MODE}.
+ * The archive is served through the DevTools interception of each browser, so replayed pages never reach the network
+ * and load as fast as the archive is read.
+ */
+@Slf4j
+public final class TrafficArchive {
+    private static final Json JSON = new Json();
+    /**
+     * Bodies are stored decoded, so these headers don't describe the replayed body anymore
+     */
+    private static final List<String> SKIPPED_HEADERS = Arrays.asList("content-encoding", "content-length",
+            "transfer-encoding");
+    private static final List<Map<String, Object>> RECORDED_ENTRIES = Collections.synchronizedList(new ArrayList<>());
+    private static Map<String, List<Map<String, Object>>> replayEntries;
+
+    private TrafficArchive() {
+    }
+
+    /**
+     * Record or replay the traffic of the driver, according to {@link Constants#TRAFFIC_MODE}.
+     * Must be attached before any other filter of {@link NetworkTraffic}, so the other filters also see the replayed
+     * responses. Requests recorded many times are replayed from the first recording again for every attachment, so
+     * each test sees the same sequence whatever the tests that ran before it in the session or in parallel
+     *
+     * @param driver driver
+     * @throws IllegalStateException if the traffic must be recorded or replayed and the driver doesn't support DevTools
+     */
+    public static void attach(final WebDriver driver) {
+        if (Constants.TRAFFIC_MODE == TrafficMode.LIVE) {
+            return;
+        }
+        if (!NetworkTraffic.isSupported(driver)) {
+            throw new IllegalStateException(String.format("Traffic mode %s needs DevTools, not supported by %s",
+                    Constants.TRAFFIC_MODE, driver.getClass().getSimpleName()));
+        }
+        final Map<String, AtomicInteger> replayCounters = new ConcurrentHashMap<>();
+        final Filter filter = Constants.TRAFFIC_MODE == TrafficMode.RECORD ? TrafficArchive::record
+                : next -> replay(next, replayCounters);
+        NetworkTraffic.of(driver).addFilter(filter);
+    }
+
+    /**
+     * Write the recorded traffic to {@link Constants#TRAFFIC_RECORDING_FILEPATH}, does nothing if the traffic is not
+     * recorded
+     */
+    @SneakyThrows
+    public static void save() {
+        if (Constants.TRAFFIC_MODE != TrafficMode.RECORD) {
+            return;
+        }
+        final Map<String, Object> creator = new LinkedHashMap<>();
+        creator.put("name", "fundingsocieties-e2e-tests");
+        creator.put("version", "1.0");
+        final Map<String, Object> harLog = new LinkedHashMap<>();
+        harLog.put("version", "1.2");
+        harLog.put("creator", creator);
+        synchronized (RECORDED_ENTRIES) {
+            harLog.put("entries", new ArrayList<>(RECORDED_ENTRIES));
+        }
+        final File archive = new File(Constants.TRAFFIC_RECORDING_FILEPATH);
+        if (archive.getParentFile() != null) {
+            archive.getParentFile().mkdirs();
+        }
+        try (Writer writer = Files.newBufferedWriter(archive.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(JSON.toJson(Collections.singletonMap("log", harLog)));
+        }
+        log.info("Saved {} request(s) to traffic archive {}", RECORDED_ENTRIES.size(), archive.getAbsolutePath());
+    }
+
+    private static HttpHandler record(final HttpHandler next) {
+        return request -> {
+            final long start = System.currentTimeMillis();
+            final HttpResponse response = next.execute(request);
+            //the content can only be read once, put it back for the browser
+            final byte[] body = Contents.bytes(response.getContent());
+            response.setContent(Contents.bytes(body));
+
+            final Map<String, Object> harRequest = new LinkedHashMap<>();
+            harRequest.put("method", request.getMethod().toString());
+            harRequest.put("url", request.getUri());
+            harRequest.put("headers", toHarHeaders(request.getHeaderNames(), request::getHeaders));
+            final Map<String, Object> content = new LinkedHashMap<>();
+            content.put("mimeType", response.getHeader("Content-Type"));
+            content.put("size", body.length);
+            content.put("encoding", "base64");
+            content.put("text", Base64.getEncoder().encodeToString(body));
+            final Map<String, Object> harResponse = new LinkedHashMap<>();
+            harResponse.put("status", response.getStatus());
+            harResponse.put("headers", toHarHeaders(response.getHeaderNames(), response::getHeaders));
+            harResponse.put("content", content);
+            final Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("startedDateTime", Instant.ofEpochMilli(start).toString());
+            entry.put("time", System.currentTimeMillis() - start);
+            entry.put("request", harRequest);
+            entry.put("response", harResponse);
+            RECORDED_ENTRIES.add(entry);
+            return response;
+        };
+    }
+
+    private static HttpHandler replay(final HttpHandler next, final Map<String, AtomicInteger> replayCounters) {
+        return request -> {
+            final String key = getKey(request.getMethod().toString(), request.getUri());
+            final List<Map<String, Object>> entries = getReplayEntries().get(key);
+            if (entries == null) {
+                log.debug("Not in traffic archive, return 404: {}", key);
+                return new HttpResponse().setStatus(404);
+            }
+            //same request recorded many times, e.g. polling, is replayed in the recorded order, then the last one
+            final int index = replayCounters.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+            return toResponse(entries.get(Math.min(index, entries.size() - 1)));
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse toResponse(final Map<String, Object> entry) {
+        final Map<String, Object> harResponse = (Map<String, Object>) entry.get("response");
+        final Map<String, Object> content = (Map<String, Object>) harResponse.get("content");
+        final HttpResponse response = new HttpResponse().setStatus(((Number) harResponse.get("status")).intValue());
+        for (final Map<String, Object> header : (List<Map<String, Object>>) harResponse.get("headers")) {
+            final String name = (String) header.get("name");
+            if (!SKIPPED_HEADERS.contains(name.toLowerCase())) {
+                response.addHeader(name, (String) header.get("value"));
+            }
+        }
+        final String text = content.get("text") == null ? "" : (String) content.get("text");
+        response.setContent(Contents.bytes("base64".equals(content.get("encoding"))
+                ? Base64.getDecoder().decode(text) : text.getBytes(StandardCharsets.UTF_8)));
+        return response;
+    }
+
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    private static synchronized Map<String, List<Map<String, Object>>> getReplayEntries() {
+        if (replayEntries == null) {
+            final File archive = new File(Constants.TRAFFIC_ARCHIVE_FILEPATH);
+            if (!archive.exists()) {
+                throw new IllegalStateException("Traffic archive not found: " + archive.getAbsolutePath());
+            }
+            final Map<String, Object> har;
+            try (Reader reader = Files.newBufferedReader(archive.toPath(), StandardCharsets.UTF_8)) {
+                har = JSON.toType(reader, Json.MAP_TYPE);
+            }
+            final Map<String, List<Map<String, Object>>> entries = new HashMap<>();
+            for (final Map<String, Object> entry :
+                    (List<Map<String, Object>>) ((Map<String, Object>) har.get("log")).get("entries")) {
+                final Map<String, Object> harRequest = (Map<String, Object>) entry.get("request");
+                entries.computeIfAbsent(getKey((String) harRequest.get("method"), (String) harRequest.get("url")),
+                        key -> new ArrayList<>()).add(entry);
+            }
+            replayEntries = entries;
+            log.info("Loaded {} request(s) from traffic archive {}", entries.size(), archive.getAbsolutePath());
+        }
+        return replayEntries;
+    }
+
+    private static String getKey(final String method, final String url) {
+        return method + " " + url;
+    }
+
+    private static List<Map<String, String>> toHarHeaders(final Iterable<String> names,
+                                                          final Function<String, Iterable<String>> values) {
+        final List<Map<String, String>> headers = new ArrayList<>();
+        for (final String name : names) {
+            for (final String value : values.apply(name)) {
+                final Map<String, String> header = new LinkedHashMap<>();
+                header.put("name", name);
+                header.put("value", value);
+                headers.add(header);
+            }
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,52 @@
+package com.fundingsocieties.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.openqa.selenium.PageLoadStrategy;
+
+/**
+ * Launch options of a browser, selected with the "profile" suite parameter, e.g. {@code <parameter name="profile"
+ * value="lean"/>}
+ */
+@AllArgsConstructor
+@Getter
+public enum BrowserProfile {
+    /**
+     * Full browser with a maximized window
+     */
+    DEFAULT(false, 0, 0, false, PageLoadStrategy.NORMAL, false),
+    /**
+     * Headless browser with a fixed viewport, for agents without display
+     */
+    HEADLESS(true, 1920, 1080, false, PageLoadStrategy.NORMAL, false),
+    /**
+     * Headless browser without GPU, extensions, background networking and images.
+     * Commands don't wait for the sub resources, so the charts must be waited for explicitly
+     */
+    LEAN(true, 1920, 1080, true, PageLoadStrategy.EAGER, true);
+
+    private final boolean headless;
+    /**
+     * 0 to maximize the window instead
+     */
+    private final int viewportWidth;
+    private final int viewportHeight;
+    private final boolean backgroundFeaturesDisabled;
+    private final PageLoadStrategy pageLoadStrategy;
+    private final boolean imagesBlocked;
+
+    public boolean hasViewport() {
+        return this.viewportWidth > 0 && this.viewportHeight > 0;
+    }
+
+    /**
+     * @param name profile name, case-insensitive, null or empty for {@link #DEFAULT}
+     * @return the profile
+     */
+    public static BrowserProfile fromName(final String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return DEFAULT;
+        }
+        return valueOf(name.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,16 @@
+package com.fundingsocieties.enums;
+
+public enum ChartDataSource {
+    /**
+     * Hover or click every point and read the rendered tooltip
+     */
+    TOOLTIP,
+    /**
+     * Hover every point with synthetic pointer events and read all the rendered tooltips in a single script execution
+     */
+    TOOLTIP_HARVEST,
+    /**
+     * Read all points from the Highcharts chart model in a single script execution
+     */
+    CHART_MODEL
+}
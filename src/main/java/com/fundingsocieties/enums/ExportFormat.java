@@ -0,0 +1,12 @@
+package com.fundingsocieties.enums;
+
+public enum ExportFormat {
+    /**
+     * One csv file per chart, values as shown in the tooltip
+     */
+    CSV,
+    /**
+     * One {@link com.fundingsocieties.common.ColumnarFile} per chart, with the values already parsed to numbers
+     */
+    COLUMNAR
+}
@@ -0,0 +1,13 @@
+package com.fundingsocieties.enums;
+
+public enum SessionMode {
+    /**
+     * Each test gets a browser of its own, reused from {@link com.fundingsocieties.driver.DriverPool}
+     */
+    POOL,
+    /**
+     * Each test gets an isolated browser context of a shared browser, see
+     * {@link com.fundingsocieties.driver.BrowserContexts}. Chromium browsers only
+     */
+    CONTEXT
+}
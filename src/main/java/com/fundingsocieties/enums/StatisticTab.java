@@ -1,14 +1,33 @@
 package com.fundingsocieties.enums;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 
-@AllArgsConstructor
+import java.util.regex.Pattern;
+
 @Getter
 public enum StatisticTab {
-    GENERAL("General"),
-    REPAYMENT("Repayment"),
-    DISBURSEMENT("Disbursement");
+    GENERAL("General", ".*statistic.*(general|financing|summary).*"),
+    REPAYMENT("Repayment", ".*statistic.*repayment.*"),
+    DISBURSEMENT("Disbursement", ".*statistic.*(disbursement|industr).*");
+
+    private final String tabText;
+    private final String defaultDataUrlPattern;
+    /**
+     * Pattern of the URLs the tab charts load their data from, e.g. -DchartDataUrl.general=<regex> to
+     * change it for the General tab. The defaults only match URLs which mention "statistic" and the tab data, check
+     * them against the requests of the page and override them if the site loads the data from elsewhere
+     */
+    private final Pattern dataUrlPattern;
+    /**
+     * True if the data URL pattern was given with -DchartDataUrl.&lt;tab&gt;, false if it is the default one
+     */
+    private final boolean dataUrlPatternConfigured;
 
-    private String tabText;
+    StatisticTab(final String tabText, final String defaultDataUrlPattern) {
+        this.tabText = tabText;
+        this.defaultDataUrlPattern = defaultDataUrlPattern;
+        final String dataUrlPattern = System.getProperty("chartDataUrl." + this.name().toLowerCase());
+        this.dataUrlPatternConfigured = dataUrlPattern != null;
+        this.dataUrlPattern = Pattern.compile(this.dataUrlPatternConfigured ? dataUrlPattern : defaultDataUrlPattern);
+    }
 }
@@ -0,0 +1,16 @@
+package com.fundingsocieties.enums;
+
+public enum TrafficMode {
+    /**
+     * Browser loads the pages from the network
+     */
+    LIVE,
+    /**
+     * Browser loads the pages from the network, all the traffic is saved to the archive at the end of the suite
+     */
+    RECORD,
+    /**
+     * Browser loads the pages from the archive only, requests which are not in the archive get 404
+     */
+    REPLAY
+}
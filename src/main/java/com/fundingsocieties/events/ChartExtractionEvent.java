@@ -0,0 +1,30 @@
+package com.fundingsocieties.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+@Name("com.fundingsocieties.ChartExtraction")
+@Label("Chart Extraction")
+@Description("Extraction of all the points of a chart")
+@Category({"Funding Societies", "Charts"})
+@StackTrace(false)
+@Setter
+public class ChartExtractionEvent extends Event {
+    @Label("Chart")
+    private String chart;
+    @Label("Locator")
+    private String locator;
+    @Label("Data Source")
+    private String dataSource;
+    @Label("Points")
+    private int points;
+    @Label("Outcome")
+    private String outcome;
+    @Label("Retries")
+    private int retries;
+}
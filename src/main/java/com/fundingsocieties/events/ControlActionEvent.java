@@ -0,0 +1,26 @@
+package com.fundingsocieties.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+@Name("com.fundingsocieties.ControlAction")
+@Label("Control Action")
+@Description("Action on a control, e.g. click, move to, scroll")
+@Category({"Funding Societies", "Controls"})
+@StackTrace(false)
+@Setter
+public class ControlActionEvent extends Event {
+    @Label("Locator")
+    private String locator;
+    @Label("Action")
+    private String action;
+    @Label("Outcome")
+    private String outcome;
+    @Label("Retries")
+    private int retries;
+}
@@ -0,0 +1,29 @@
+package com.fundingsocieties.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+@Name("com.fundingsocieties.Wait")
+@Label("Wait")
+@Description("Wait of a control until a condition is met")
+@Category({"Funding Societies", "Controls"})
+@StackTrace(false)
+@Setter
+public class WaitEvent extends Event {
+    @Label("Locator")
+    private String locator;
+    @Label("Condition")
+    private String condition;
+    @Label("Timeout (s)")
+    private int timeoutInSeconds;
+    @Label("Outcome")
+    private String outcome;
+    @Label("Retries")
+    @Description("Number of times the condition was checked again")
+    private int retries;
+}
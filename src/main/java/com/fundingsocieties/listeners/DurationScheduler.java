@@ -0,0 +1,170 @@
+package com.fundingsocieties.listeners;
+
+import com.fundingsocieties.common.Constants;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Run the longest tests first, from their durations in the previous runs. Workers take the next test as soon as they
+ * are free, so the long tests are spread over the workers and the short ones fill the gaps at the end, instead of one
+ * worker running the longest test alone while the others are idle (longest processing time first scheduling).
+ * <p>
+ * Durations are kept per test in {@link Constants#TEST_DURATIONS_FILEPATH}, as a moving average weighted by
+ * {@link Constants#TEST_DURATION_SMOOTHING}. The file is locked while it is written, so parallel forks can share it.
+ * Register it in the listeners of the suite.
+ */
+@Slf4j
+public class DurationScheduler implements IMethodInterceptor, ITestListener {
+    private final Map<String, Long> measuredDurations = new ConcurrentHashMap<>();
+
+    @Override
+    public List<IMethodInstance> intercept(final List<IMethodInstance> methods, final ITestContext context) {
+        final Properties durations = load();
+        if (durations.isEmpty()) {
+            log.info("No test durations in {} yet, keep the suite order", Constants.TEST_DURATIONS_FILEPATH);
+            return methods;
+        }
+        //tests without history are expected to take an average time
+        final long defaultDuration = (long) durations.stringPropertyNames().stream()
+                .mapToLong(key -> Long.parseLong(durations.getProperty(key))).average().orElse(0);
+        final List<IMethodInstance> ordered = new ArrayList<>(methods);
+        ordered.sort(Comparator.comparingLong(
+                (IMethodInstance method) -> getDuration(durations, method.getMethod(), defaultDuration)).reversed());
+        final XmlSuite suite = context.getSuite().getXmlSuite();
+        final int workers = suite.getParallel() == XmlSuite.ParallelMode.NONE ? 1 : suite.getThreadCount();
+        log.info("Run {} test(s) longest first, expected to take {} ms on {} worker(s)", ordered.size(),
+                getMakespan(ordered, durations, defaultDuration, workers), workers);
+        return ordered;
+    }
+
+    @Override
+    public void onTestSuccess(final ITestResult result) {
+        this.record(result);
+    }
+
+    @Override
+    public void onTestFailure(final ITestResult result) {
+        this.record(result);
+    }
+
+    @Override
+    public void onFinish(final ITestContext context) {
+        this.save();
+    }
+
+    private void record(final ITestResult result) {
+        this.measuredDurations.put(getKey(result.getMethod()), result.getEndMillis() - result.getStartMillis());
+    }
+
+    /**
+     * Merge the durations measured in this run into the file, read again under the lock in case another fork
+     * updated it meanwhile
+     */
+    @SneakyThrows
+    private synchronized void save() {
+        if (this.measuredDurations.isEmpty()) {
+            return;
+        }
+        final File file = new File(Constants.TEST_DURATIONS_FILEPATH);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final FileLock lock = channel.lock();
+            try {
+                this.merge(channel);
+            } finally {
+                lock.release();
+            }
+        }
+        log.info("Durations of {} test(s) written to {}", this.measuredDurations.size(), file);
+        this.measuredDurations.clear();
+    }
+
+    /**
+     * Merge the measured durations into the durations file, the caller holds its lock
+     */
+    private void merge(final FileChannel channel) throws IOException {
+        final Properties durations = new Properties();
+        durations.load(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+        for (final Map.Entry<String, Long> entry : this.measuredDurations.entrySet()) {
+            final String previous = durations.getProperty(entry.getKey());
+            final long duration = previous == null ? entry.getValue()
+                    : Math.round(Constants.TEST_DURATION_SMOOTHING * entry.getValue()
+                    + (1 - Constants.TEST_DURATION_SMOOTHING) * Long.parseLong(previous));
+            durations.setProperty(entry.getKey(), String.valueOf(duration));
+        }
+        channel.truncate(0);
+        channel.position(0);
+        durations.store(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8),
+                "Test durations in milliseconds, moving average of the previous runs");
+    }
+
+    @SneakyThrows
+    private static Properties load() {
+        final Properties durations = new Properties();
+        final File file = new File(Constants.TEST_DURATIONS_FILEPATH);
+        if (!file.isFile()) {
+            return durations;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final FileLock lock = channel.lock(0, Long.MAX_VALUE, true);
+            try {
+                durations.load(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            } finally {
+                lock.release();
+            }
+        }
+        return durations;
+    }
+
+    /**
+     * Time the tests take when each one goes to the worker which is free first
+     */
+    private static long getMakespan(final List<IMethodInstance> methods, final Properties durations,
+                                    final long defaultDuration, final int workers) {
+        final PriorityQueue<Long> workerLoads = new PriorityQueue<>();
+        for (int i = 0; i < Math.max(1, workers); i++) {
+            workerLoads.add(0L);
+        }
+        for (final IMethodInstance method : methods) {
+            workerLoads.add(workerLoads.poll() + getDuration(durations, method.getMethod(), defaultDuration));
+        }
+        return workerLoads.stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    private static long getDuration(final Properties durations, final ITestNGMethod method,
+                                    final long defaultDuration) {
+        final String duration = durations.getProperty(getKey(method));
+        return duration == null ? defaultDuration : Long.parseLong(duration);
+    }
+
+    private static String getKey(final ITestNGMethod method) {
+        return method.getRealClass().getName() + "." + method.getMethodName();
+    }
+}
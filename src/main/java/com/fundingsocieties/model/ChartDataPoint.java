@@ -0,0 +1,15 @@
+package com.fundingsocieties.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Value of one series at one point of a chart, e.g. the "totalApproved" series at "Q1 2021"
+ */
+@Getter
+@AllArgsConstructor
+public class ChartDataPoint {
+    private final String name;
+    private final String series;
+    private final double value;
+}
@@ -0,0 +1,104 @@
+package com.fundingsocieties.model;
+
+import com.fundingsocieties.enums.StatisticTab;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Data a statistics chart is rendered from, captured from the network response: one point per series and chart point
+ */
+@Getter
+@AllArgsConstructor
+public class ChartDataset {
+    private final StatisticTab tab;
+    private final String url;
+    private final long capturedAtMillis;
+    private final List<ChartDataPoint> points;
+
+    /**
+     * @return names of the chart points, e.g. quarters or industries, in the order of the response
+     */
+    public List<String> getNames() {
+        final Set<String> names = new LinkedHashSet<>();
+        for (final ChartDataPoint point : this.points) {
+            names.add(point.getName());
+        }
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * @return names of the series, in the order of the response
+     */
+    public List<String> getSeries() {
+        final Set<String> series = new LinkedHashSet<>();
+        for (final ChartDataPoint point : this.points) {
+            series.add(point.getSeries());
+        }
+        return new ArrayList<>(series);
+    }
+
+    /**
+     * Map the points of a series to tooltip attributes, so they can be compared with the data read from the chart
+     *
+     * @param series   series name, see {@link #getSeries()}
+     * @param attrName attribute name shown in the tooltip, e.g. "Total approved"
+     * @return one attribute per point of the series
+     */
+    public List<TooltipAttr> toTooltipAttrs(final String series, final String attrName) {
+        final List<TooltipAttr> tooltipAttrs = new ArrayList<>();
+        for (final ChartDataPoint point : this.points) {
+            if (point.getSeries().equals(series)) {
+                tooltipAttrs.add(new TooltipAttr(point.getName(), attrName,
+                        BigDecimal.valueOf(point.getValue()).stripTrailingZeros().toPlainString()));
+            }
+        }
+        return tooltipAttrs;
+    }
+
+    /**
+     * Find the series the chart shows, the chart values being rounded to the decimals they are shown with
+     *
+     * @param chartData data read from the chart
+     * @return name of the series with the same points and values, null if there is none
+     */
+    public String findSeries(final List<TooltipAttr> chartData) {
+        for (final String series : this.getSeries()) {
+            final List<TooltipAttr> seriesData = this.toTooltipAttrs(series, null);
+            if (seriesData.size() == chartData.size() && matches(seriesData, chartData)) {
+                return series;
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(final List<TooltipAttr> seriesData, final List<TooltipAttr> chartData) {
+        for (int i = 0; i < chartData.size(); i++) {
+            final TooltipAttr shown = chartData.get(i);
+            if (shown.getAttrValue() == null
+                    || !seriesData.get(i).getTooltipName().trim().equals(String.valueOf(shown.getTooltipName()).trim())
+                    || Math.abs(seriesData.get(i).getValueAsNumber() - shown.getValueAsNumber())
+                    > getRoundingError(shown)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Half of the last digit shown, e.g. 0.05 for "1,234.5"
+     */
+    private static double getRoundingError(final TooltipAttr shown) {
+        final String value = shown.getAttrValue();
+        final int separator = value.lastIndexOf(DecimalFormatSymbols.getInstance(shown.getLocale())
+                .getDecimalSeparator());
+        final int decimals = separator < 0 ? 0 : value.length() - separator - 1;
+        return Math.pow(10, -decimals) / 2;
+    }
+}
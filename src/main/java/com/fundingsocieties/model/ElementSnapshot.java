@@ -0,0 +1,63 @@
+package com.fundingsocieties.model;
+
+import lombok.Getter;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebElement;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable values of an element, read at once by {@link com.fundingsocieties.controls.BaseControl#getSnapshots}.
+ * Only the requested properties are filled, the others are null.
+ */
+@Getter
+public final class ElementSnapshot {
+    private final WebElement element;
+    private final String text;
+    private final String className;
+    private final Rectangle rect;
+    private final Map<String, String> attributes;
+    private final Map<String, String> cssValues;
+
+    @SuppressWarnings("unchecked")
+    public ElementSnapshot(final Map<String, Object> rawSnapshot) {
+        this.element = (WebElement) rawSnapshot.get("element");
+        final Object rawText = rawSnapshot.get("text");
+        this.text = rawText == null ? null : rawText.toString().trim();
+        this.className = (String) rawSnapshot.get("className");
+        this.rect = toRectangle((Map<String, Object>) rawSnapshot.get("rect"));
+        this.attributes = toStringMap((Map<String, Object>) rawSnapshot.get("attributes"));
+        this.cssValues = toStringMap((Map<String, Object>) rawSnapshot.get("css"));
+    }
+
+    public String getAttribute(final String attributeName) {
+        return this.attributes.get(attributeName);
+    }
+
+    public String getCssValue(final String cssProperty) {
+        return this.cssValues.get(cssProperty);
+    }
+
+    private static Rectangle toRectangle(final Map<String, Object> rawRect) {
+        if (rawRect == null) {
+            return null;
+        }
+        return new Rectangle(toInt(rawRect.get("x")), toInt(rawRect.get("y")),
+                toInt(rawRect.get("height")), toInt(rawRect.get("width")));
+    }
+
+    private static int toInt(final Object number) {
+        return (int) Math.round(((Number) number).doubleValue());
+    }
+
+    private static Map<String, String> toStringMap(final Map<String, Object> rawMap) {
+        if (rawMap == null) {
+            return Collections.emptyMap();
+        }
+        final Map<String, String> result = new HashMap<>();
+        rawMap.forEach((key, value) -> result.put(key, value == null ? null : value.toString()));
+        return Collections.unmodifiableMap(result);
+    }
+}
@@ -0,0 +1,51 @@
+package com.fundingsocieties.model;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * A property to read from every element of a {@link com.fundingsocieties.controls.BaseControl#getSnapshots} call
+ */
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SnapshotProperty {
+    private final Kind kind;
+    private final String name;
+
+    public static SnapshotProperty text() {
+        return new SnapshotProperty(Kind.TEXT, null);
+    }
+
+    public static SnapshotProperty className() {
+        return new SnapshotProperty(Kind.CLASS, null);
+    }
+
+    public static SnapshotProperty rect() {
+        return new SnapshotProperty(Kind.RECT, null);
+    }
+
+    /**
+     * @param attributeName attribute name, e.g. "fill"
+     */
+    public static SnapshotProperty attribute(final String attributeName) {
+        return new SnapshotProperty(Kind.ATTRIBUTE, attributeName);
+    }
+
+    /**
+     * @param cssProperty longhand css property name, e.g. "background-color"
+     */
+    public static SnapshotProperty css(final String cssProperty) {
+        return new SnapshotProperty(Kind.CSS, cssProperty);
+    }
+
+    public enum Kind {
+        TEXT,
+        CLASS,
+        RECT,
+        ATTRIBUTE,
+        CSS
+    }
+}
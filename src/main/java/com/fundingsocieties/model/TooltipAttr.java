@@ -1,45 +1,79 @@
 package com.fundingsocieties.model;
 
 import com.fundingsocieties.common.CommonHelper;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
-@AllArgsConstructor
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 @Getter
 @Setter
 public class TooltipAttr implements Comparable<TooltipAttr> {
+    /**
+     * "tooltip name● attribute name: value", the value can have a currency prefix, a sign, grouping spaces and a
+     * unit suffix, e.g. "Q1 2021● Amount disbursed: S$1,234.56", "Q1● Rate: -5.2%" or "Agriculture● Share: 12,5 %"
+     */
+    private static final Pattern TOOLTIP_PATTERN =
+            Pattern.compile("(.*)\u25CF(.*):\\s*[^\\d\\s\\-\\u2212]*\\s*([-\\u2212]?\\d[\\d.,' \\u00A0\\u202F]*)");
+
     private String tooltipName;
     private String attrName;
     private String attrValue;
+    /**
+     * Parsed once from {@link #attrValue}, so sorting and aggregation don't parse the text again
+     */
+    @Setter(AccessLevel.NONE)
+    private double valueAsNumber;
+    private final Locale locale;
 
-    public TooltipAttr(final String rawText) {
-        this.tooltipName = getTooltipName(rawText);
-        this.attrName = getValueName(rawText);
-        this.attrValue = getValue(rawText);
+    public TooltipAttr(final String tooltipName, final String attrName, final String attrValue) {
+        this.locale = Locale.US;
+        this.tooltipName = tooltipName;
+        this.attrName = attrName;
+        this.setAttrValue(attrValue);
     }
 
-    private String getTooltipName(final String tooltipText) {
-        final String regex = "(.*)●";
-        return CommonHelper.getMatchGroup(tooltipText, regex, 1);
+    public TooltipAttr(final String rawText) {
+        this(rawText, Locale.US);
     }
 
-    private String getValueName(final String tooltipText) {
-        final String regex = "●(.*):";
-        return CommonHelper.getMatchGroup(tooltipText, regex, 1).trim();
+    /**
+     * @param rawText tooltip text
+     * @param locale  locale of the number format of the value, e.g. {@link Locale#GERMANY} for "1.234,56"
+     */
+    public TooltipAttr(final String rawText, final Locale locale) {
+        this.locale = locale;
+        final Matcher matcher = TOOLTIP_PATTERN.matcher(rawText);
+        if (matcher.find()) {
+            this.tooltipName = matcher.group(1);
+            this.attrName = matcher.group(2).trim();
+            this.setAttrValue(trimTrailingSeparators(matcher.group(3)));
+        } else {
+            this.setAttrValue(null);
+        }
     }
 
-    private String getValue(final String tooltipText) {
-        final String regex = ": ([\\d|,|\\.]+)";
-        return CommonHelper.getMatchGroup(tooltipText, regex, 1);
+    public void setAttrValue(final String attrValue) {
+        this.attrValue = attrValue;
+        this.valueAsNumber = attrValue == null ? Double.NaN : CommonHelper.parseNumber(attrValue, this.locale);
     }
 
-    public double getValueAsNumber() {
-        return Double.parseDouble(this.attrValue.trim().replace(",", ""));
+    /**
+     * A value at the end of a sentence, e.g. "1,234." keeps the separator, remove it
+     */
+    private static String trimTrailingSeparators(final String value) {
+        int end = value.length();
+        while (!Character.isDigit(value.charAt(end - 1))) {
+            end--;
+        }
+        return value.substring(0, end);
     }
 
     @Override
     public int compareTo(final TooltipAttr tooltipAttr) {
-        return Double.compare(getValueAsNumber(), tooltipAttr.getValueAsNumber());
+        return Double.compare(this.valueAsNumber, tooltipAttr.valueAsNumber);
     }
 }
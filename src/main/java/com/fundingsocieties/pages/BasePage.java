@@ -4,11 +4,11 @@ import com.fundingsocieties.controls.Button;
 import com.fundingsocieties.enums.TopMenuItem;
 
 public class BasePage {
-    private static final Button dynBtnTopMenuItem = new Button("//li[@class='nav-menu__item']/a[text()='%s']");
+    private final Button dynBtnTopMenuItem = new Button("//li[@class='nav-menu__item']/a[text()='%s']");
 
     public void clickTopMenuItem(final TopMenuItem menuItem) {
-        dynBtnTopMenuItem.setDynamicValue(menuItem.getItemName());
-        dynBtnTopMenuItem.waitForElementClickable();
-        dynBtnTopMenuItem.click();
+        this.dynBtnTopMenuItem.setDynamicValue(menuItem.getItemName());
+        this.dynBtnTopMenuItem.waitForElementClickable();
+        this.dynBtnTopMenuItem.click();
     }
 }
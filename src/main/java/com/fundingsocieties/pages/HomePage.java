@@ -3,7 +3,10 @@ package com.fundingsocieties.pages;
 import com.fundingsocieties.driver.DriverUtils;
 
 public class HomePage extends BasePage {
-    private static final String PAGE_URL = "https://fundingsocieties.com/";
+    /**
+     * -DbaseUrl to run against another server, e.g. a local stand-in with canned responses
+     */
+    private static final String PAGE_URL = System.getProperty("baseUrl", "https://fundingsocieties.com/");
 
     public void open() {
         DriverUtils.navigateTo(PAGE_URL);
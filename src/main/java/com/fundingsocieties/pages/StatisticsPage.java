@@ -1,21 +1,35 @@
 package com.fundingsocieties.pages;
 
+import com.fundingsocieties.common.ChartDataCapture;
+import com.fundingsocieties.common.ColumnarFile;
 import com.fundingsocieties.common.CommonHelper;
 import com.fundingsocieties.common.Constants;
+import com.fundingsocieties.common.CsvSink;
 import com.fundingsocieties.common.ElementHelper;
 import com.fundingsocieties.common.FileHelper;
-import com.fundingsocieties.common.WaitHelper;
+import com.fundingsocieties.common.HighChartHelper;
 import com.fundingsocieties.controls.BaseControl;
 import com.fundingsocieties.controls.Button;
+import com.fundingsocieties.controls.Clickable;
 import com.fundingsocieties.controls.Label;
+import com.fundingsocieties.driver.DriverUtils;
+import com.fundingsocieties.driver.NetworkTraffic;
+import com.fundingsocieties.enums.ChartDataSource;
 import com.fundingsocieties.enums.ChartToggle;
+import com.fundingsocieties.enums.ExportFormat;
 import com.fundingsocieties.enums.StatisticAttribute;
 import com.fundingsocieties.enums.StatisticTab;
+import com.fundingsocieties.events.ChartExtractionEvent;
+import com.fundingsocieties.model.ChartDataset;
+import com.fundingsocieties.model.ElementSnapshot;
 import com.fundingsocieties.model.HighChartColumnSeriesAttr;
+import com.fundingsocieties.model.SnapshotProperty;
 import com.fundingsocieties.model.TooltipAttr;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
-import org.openqa.selenium.By;
-import org.openqa.selenium.ElementClickInterceptedException;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
 
 import java.awt.Color;
@@ -23,10 +37,13 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @Slf4j
 public class StatisticsPage extends BasePage {
+    private static final String[] CHART_POINTS_HEADER = {"Chart", "Attribute", "Tooltip", "Value"};
     private final Label dynLblStatisticDetail =
             new Label("//div[@class='detailCaption' and normalize-space()='%s']/preceding-sibling::font");
     private final Button dynBtnStatisticTab =
@@ -38,9 +55,73 @@ public class StatisticsPage extends BasePage {
             new Label("(//*[@class='highcharts-axis-labels highcharts-xaxis-labels'])[1]//*[local-name()='text']");
     private final BaseControl repaymentHighChartColumnSeries =
             new BaseControl("css=.highcharts-series.highcharts-column-series rect.highcharts-point");
-    private final Label dynLabelRepaymentHighChartLegends = new Label("css=.highcharts-legend-item:nth-child(%s)");
+    private final Label lblRepaymentHighChartLegendTexts = new Label("css=.highcharts-legend-item > text");
+    private final BaseControl repaymentHighChartLegendSymbols =
+            new BaseControl("css=.highcharts-legend-item > rect");
     private final Button btnPiePieceInChart = new Button("css=.highcharts-pie-series path:not([visibility])");
     private final BaseControl pieChart = new BaseControl("css=.highcharts-series.highcharts-pie-series");
+    /**
+     * Where chart data is collected from, use {@link ChartDataSource#TOOLTIP} to also verify the tooltip rendering
+     */
+    @Getter
+    @Setter
+    private ChartDataSource chartDataSource = ChartDataSource.TOOLTIP;
+    private ChartDataCapture chartDataCapture;
+
+    /**
+     * Start recording the JSON data the charts are rendered from, must be called before the statistics page is
+     * opened. Does nothing if the browser doesn't support DevTools
+     *
+     * @return True if the capture started, false otherwise
+     */
+    public boolean startChartDataCapture() {
+        if (this.chartDataCapture != null) {
+            return true;
+        }
+        if (!NetworkTraffic.isSupported(DriverUtils.getDriver())) {
+            log.warn("Chart data capture is not supported by this browser");
+            return false;
+        }
+        this.chartDataCapture = ChartDataCapture.start(DriverUtils.getDriver());
+        return true;
+    }
+
+    /**
+     * Get the data captured for the charts of the tab, see {@link #startChartDataCapture()}
+     *
+     * @param tab statistic tab
+     * @return captured datasets, empty if the capture was not started or nothing was loaded before the timeout
+     */
+    public List<ChartDataset> getCapturedChartData(final StatisticTab tab) {
+        if (this.chartDataCapture == null) {
+            return Collections.emptyList();
+        }
+        return this.chartDataCapture.waitForDatasets(tab, Constants.DEFAULT_TIME_WAIT);
+    }
+
+    /**
+     * Find the series of the captured data the chart shows, see {@link ChartDataset#findSeries(List)}
+     *
+     * @param tab       statistic tab of the chart
+     * @param chartData data read from the chart
+     * @return name of the series, null if no dataset captured for the tab has the points of the chart
+     */
+    public String findCapturedSeries(final StatisticTab tab, final List<TooltipAttr> chartData) {
+        for (final ChartDataset dataset : this.getCapturedChartData(tab)) {
+            final String series = dataset.findSeries(chartData);
+            if (series != null) {
+                return series;
+            }
+        }
+        return null;
+    }
+
+    public void stopChartDataCapture() {
+        if (this.chartDataCapture != null) {
+            this.chartDataCapture.close();
+            this.chartDataCapture = null;
+        }
+    }
 
     public boolean isStatisticDetailDisplayed(final StatisticAttribute attrName) {
         this.dynLblStatisticDetail.setDynamicValue(attrName.getAttrText());
@@ -66,34 +147,131 @@ public class StatisticsPage extends BasePage {
     public void openStatisticTab(final StatisticTab tabName) {
         this.dynBtnStatisticTab.setDynamicValue(tabName.getTabText());
         this.dynBtnStatisticTab.waitForVisibility();
-        this.dynBtnStatisticTab.click();
+        this.clickAndWaitForChartRendered(this.dynBtnStatisticTab);
     }
 
     public void selectToggle(final ChartToggle toggle) {
         this.dynLblChartToggle.setDynamicValue(toggle.getToggleForAttr());
         this.dynLblChartToggle.waitForVisibility();
-        this.dynLblChartToggle.click();
+        this.clickAndWaitForChartRendered(this.dynLblChartToggle);
+    }
+
+    /**
+     * Click the control and wait until the charts are rendered again, so the chart data can be read right away
+     *
+     * @param control control which redraws the charts
+     */
+    private void clickAndWaitForChartRendered(final Clickable control) {
+        final long renderCount = HighChartHelper.getRenderCount();
+        control.click();
+        if (!HighChartHelper.waitForChartRendered(renderCount, Constants.DEFAULT_TIME_WAIT)) {
+            throw new TimeoutException(String.format("Charts are not rendered %s s after clicking on '%s'",
+                    Constants.DEFAULT_TIME_WAIT, control));
+        }
     }
 
     public List<TooltipAttr> getFinancingChartData() {
+        final ChartExtractionEvent event = new ChartExtractionEvent();
+        final AtomicInteger retries = new AtomicInteger();
+        List<TooltipAttr> data = null;
+        event.begin();
+        try {
+            data = this.readFinancingChartData(openChartPoints(), retries);
+            return data;
+        } finally {
+            this.commitExtractionEvent(event, "financing", this.highChartsMarker, data, retries.get());
+        }
+    }
+
+    /**
+     * Read after {@link #openStatisticTab} or {@link #selectToggle}, which wait until the chart is rendered
+     */
+    private List<TooltipAttr> readFinancingChartData(final CsvSink chartPoints, final AtomicInteger retries) {
         final List<TooltipAttr> financingApprovedData = new ArrayList<>();
-        this.highChartsMarker.waitForVisibility();
-        for (final WebElement marker : this.highChartsMarker.getElements()) {
-            int retryCount = 3;
-            marker.click();
-            //for some reason sometime first or second click on the mark doesn't show the tooltip,
-            // so we retry sometime until it appears
-            while (!this.lblChartTooltip.waitForVisibility(Constants.LOW_TIMEOUT_IN_SECONDS) && retryCount-- >= 0) {
-                log.info("Retry: " + retryCount);
-                marker.click();
+        if (this.chartDataSource != ChartDataSource.TOOLTIP) {
+            for (final TooltipAttr point : this.chartDataSource == ChartDataSource.CHART_MODEL
+                    ? HighChartHelper.getTooltipAttrs(HighChartHelper.LINE_SERIES_TYPES)
+                    : HighChartHelper.harvestTooltipAttrs(HighChartHelper.LINE_SERIES_TYPES)) {
+                financingApprovedData.add(this.collectPoint(chartPoints, "financing", point));
             }
-            final String tooltipText = this.lblChartTooltip.getText();
-            financingApprovedData.add(new TooltipAttr(tooltipText));
+            assert financingApprovedData.size() > 0 : "Unable to get data from chart";
+            return financingApprovedData;
+        }
+        String tooltipText = null;
+        final List<WebElement> markers = this.highChartsMarker.getElements();
+        for (int i = 0; i < markers.size(); i++) {
+            tooltipText = this.clickForTooltip(this.highChartsMarker, markers.get(i), i, tooltipText,
+                    Constants.LOW_TIMEOUT_IN_SECONDS, retries);
+            financingApprovedData.add(this.collectPoint(chartPoints, "financing", new TooltipAttr(tooltipText)));
         }
         assert financingApprovedData.size() > 0 : "Unable to get data from chart";
         return financingApprovedData;
     }
 
+    /**
+     * Click a chart point and read its tooltip. The render hook disables the tooltip animation, so the tooltip shows at
+     * the first click; the point is clicked once more if it didn't, the tooltip of the previous point is never read
+     *
+     * @param chart               chart the point belongs to, for the error message
+     * @param point               chart point element
+     * @param index               index of the point in the chart
+     * @param previousTooltipText tooltip text of the previous point, null for the first one
+     * @param timeOutInSeconds    timeout of each click in seconds
+     * @param retries             incremented when the point is clicked again
+     * @return tooltip text of the point
+     */
+    private String clickForTooltip(final BaseControl chart, final WebElement point, final int index,
+                                   final String previousTooltipText, final int timeOutInSeconds,
+                                   final AtomicInteger retries) {
+        point.click();
+        String tooltipText = this.lblChartTooltip.waitForTextChange(previousTooltipText, timeOutInSeconds);
+        if (tooltipText == null) {
+            retries.incrementAndGet();
+            log.warn("Tooltip of point {} of '{}' wasn't displayed. Click again.", index, chart);
+            point.click();
+            tooltipText = this.lblChartTooltip.waitForTextChange(previousTooltipText, timeOutInSeconds);
+        }
+        if (tooltipText == null) {
+            throw new TimeoutException(String.format("Tooltip of point %s of '%s' wasn't displayed after 2 clicks",
+                    index, chart));
+        }
+        return tooltipText;
+    }
+
+    private void commitExtractionEvent(final ChartExtractionEvent event, final String chartName,
+                                       final BaseControl chart, final List<?> data, final int retries) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setChart(chartName);
+            event.setLocator(String.valueOf(chart.getFullLocator()));
+            event.setDataSource(this.chartDataSource.name());
+            event.setPoints(data == null ? 0 : data.size());
+            event.setOutcome(data == null ? "error" : "done");
+            event.setRetries(retries);
+            event.commit();
+        }
+    }
+
+    /**
+     * Sink of {@link Constants#CHART_POINTS_FILEPATH}, opened once per extraction
+     */
+    private static CsvSink openChartPoints() {
+        return CsvSink.open(Constants.CHART_POINTS_FILEPATH, CHART_POINTS_HEADER, true, Constants.CSV_SINK_FLUSH_ROWS);
+    }
+
+    /**
+     * Stream the point to {@link Constants#CHART_POINTS_FILEPATH} as soon as it's extracted
+     *
+     * @param chartPoints sink of the chart points, see {@link #openChartPoints()}
+     * @param chartName   chart the point belongs to
+     * @param point       extracted point
+     * @return the given point
+     */
+    private TooltipAttr collectPoint(final CsvSink chartPoints, final String chartName, final TooltipAttr point) {
+        chartPoints.writeRow(chartName, point.getAttrName(), point.getTooltipName(), point.getAttrValue());
+        return point;
+    }
+
     public List<String> getQuarterNameListFromTooltips(final List<TooltipAttr> tooltipAttrList) {
         return tooltipAttrList.stream().map(TooltipAttr::getTooltipName).collect(
                 Collectors.toList());
@@ -107,6 +285,10 @@ public class StatisticsPage extends BasePage {
 
     public void exportChartDataWithHeader(final String tooltipHeader, final List<TooltipAttr> tooltipAttrList,
                                           final String outputFilePath) {
+        if (Constants.EXPORT_FORMAT == ExportFormat.COLUMNAR) {
+            this.exportColumnar(tooltipHeader, tooltipAttrList, outputFilePath);
+            return;
+        }
         final String[] header = new String[tooltipAttrList.size() + 1];
         header[0] = tooltipHeader;
         final String[] data = new String[tooltipAttrList.size() + 1];
@@ -119,30 +301,95 @@ public class StatisticsPage extends BasePage {
         FileHelper.writeCsvFile(outputFilePath, header, Collections.singletonList(data));
     }
 
+    /**
+     * Write the data as a {@link ColumnarFile}, one row per tooltip, next to the csv file path
+     *
+     * @param tooltipHeader   name of the tooltip name column
+     * @param tooltipAttrList data to write
+     * @param csvFilePath     csv file path, the extension is replaced by {@link ColumnarFile#EXTENSION}
+     */
+    private void exportColumnar(final String tooltipHeader, final List<TooltipAttr> tooltipAttrList,
+                                final String csvFilePath) {
+        final String[] tooltipNames = new String[tooltipAttrList.size()];
+        final String[] attrNames = new String[tooltipAttrList.size()];
+        final String[] rawValues = new String[tooltipAttrList.size()];
+        final double[] values = new double[tooltipAttrList.size()];
+        for (int i = 0; i < tooltipAttrList.size(); i++) {
+            tooltipNames[i] = tooltipAttrList.get(i).getTooltipName();
+            attrNames[i] = tooltipAttrList.get(i).getAttrName();
+            rawValues[i] = tooltipAttrList.get(i).getAttrValue();
+            values[i] = tooltipAttrList.get(i).getValueAsNumber();
+        }
+        ColumnarFile.write(csvFilePath.replaceFirst("\\.csv$", ColumnarFile.EXTENSION),
+                ColumnarFile.Column.strings(tooltipHeader, tooltipNames),
+                ColumnarFile.Column.strings("Attribute", attrNames),
+                ColumnarFile.Column.strings("Raw value", rawValues),
+                ColumnarFile.Column.doubles("Value", values));
+    }
+
     public void exportStatisticDetails() {
         final String[] header = {"Total funded", "No. of financing", "Default rate", "Financing fulfillment rate"};
         final String[] data = {getStatisticDetail(StatisticAttribute.TOTAL_FUNDED),
                 getStatisticDetail(StatisticAttribute.NO_OF_FINANCING),
                 getStatisticDetail(StatisticAttribute.DEFAULT_RATE),
                 getStatisticDetail(StatisticAttribute.FULFILLMENT_RATE)};
+        if (Constants.EXPORT_FORMAT == ExportFormat.COLUMNAR) {
+            final List<TooltipAttr> details = new ArrayList<>();
+            for (int i = 0; i < header.length; i++) {
+                details.add(new TooltipAttr(header[i], "Statistic detail", data[i]));
+            }
+            this.exportColumnar("Statistic", details, Constants.STATISTIC_DETAILS_FILEPATH);
+            return;
+        }
         FileHelper.writeCsvFile(Constants.STATISTIC_DETAILS_FILEPATH, header, Collections.singletonList(data));
     }
 
     public List<HighChartColumnSeriesAttr> getRepaymentChartData() {
+        final ChartExtractionEvent event = new ChartExtractionEvent();
+        final AtomicInteger retries = new AtomicInteger();
+        List<HighChartColumnSeriesAttr> data = null;
+        event.begin();
+        try {
+            data = this.readRepaymentChartData(openChartPoints(), retries);
+            return data;
+        } finally {
+            this.commitExtractionEvent(event, "repayment", this.repaymentHighChartColumnSeries, data, retries.get());
+        }
+    }
+
+    private List<HighChartColumnSeriesAttr> readRepaymentChartData(final CsvSink chartPoints,
+                                                                   final AtomicInteger retries) {
         final List<HighChartColumnSeriesAttr> highChartColumnSeriesAttrs = new ArrayList<>();
-        assert this.repaymentHighChartColumnSeries.waitForVisibility() : "Repayment high chart marker not found!";
-        for (final WebElement column : this.repaymentHighChartColumnSeries.getElements()) {
-            final String columnColor = column.getAttribute("fill");
-            column.click();
-            this.lblChartTooltip.waitForVisibility();
-            final TooltipAttr tooltipAttr = new TooltipAttr(this.lblChartTooltip.getText());
-            highChartColumnSeriesAttrs.add(new HighChartColumnSeriesAttr(columnColor, tooltipAttr));
+        assert this.repaymentHighChartColumnSeries.isDisplayed() : "Repayment high chart marker not found!";
+        if (this.chartDataSource != ChartDataSource.TOOLTIP) {
+            for (final HighChartColumnSeriesAttr column : this.chartDataSource == ChartDataSource.CHART_MODEL
+                    ? HighChartHelper.getColumnSeriesAttrs(HighChartHelper.COLUMN_SERIES_TYPES)
+                    : HighChartHelper.harvestColumnSeriesAttrs(HighChartHelper.COLUMN_SERIES_TYPES)) {
+                this.collectPoint(chartPoints, "repayment", column.getTooltipAttr());
+                highChartColumnSeriesAttrs.add(column);
+            }
+            return highChartColumnSeriesAttrs;
+        }
+        String tooltipText = null;
+        final List<ElementSnapshot> columns =
+                this.repaymentHighChartColumnSeries.getSnapshots(SnapshotProperty.attribute("fill"));
+        for (int i = 0; i < columns.size(); i++) {
+            final String columnColor = columns.get(i).getAttribute("fill");
+            tooltipText = this.clickForTooltip(this.repaymentHighChartColumnSeries, columns.get(i).getElement(), i,
+                    tooltipText, Constants.DEFAULT_TIME_WAIT, retries);
+            highChartColumnSeriesAttrs.add(new HighChartColumnSeriesAttr(columnColor,
+                    this.collectPoint(chartPoints, "repayment", new TooltipAttr(tooltipText))));
         }
         return highChartColumnSeriesAttrs;
     }
 
     public void exportHighChartColumnSeriesData(final List<HighChartColumnSeriesAttr> highChartColumnSeriesAttrs,
                                                 final String filePath) {
+        if (Constants.EXPORT_FORMAT == ExportFormat.COLUMNAR) {
+            this.exportColumnar("Series", highChartColumnSeriesAttrs.stream()
+                    .map(HighChartColumnSeriesAttr::getTooltipAttr).collect(Collectors.toList()), filePath);
+            return;
+        }
         final String[] header =
                 highChartColumnSeriesAttrs.stream().map(attr -> attr.getTooltipAttr().getAttrName())
                         .toArray(String[]::new);
@@ -157,15 +404,22 @@ public class StatisticsPage extends BasePage {
             throw new RuntimeException("Column not found!");
         }
 
+        final List<ElementSnapshot> legendTexts = this.lblRepaymentHighChartLegendTexts.getSnapshots(
+                SnapshotProperty.text());
+        final List<ElementSnapshot> legendSymbols = this.repaymentHighChartLegendSymbols.getSnapshots(
+                SnapshotProperty.attribute("fill"));
+        if (legendTexts.size() < highChartColumnSeriesList.size()
+                || legendSymbols.size() < highChartColumnSeriesList.size()) {
+            log.info(String.format("Number of legends doesn't match columns. Columns: %s. Legends: %s",
+                    highChartColumnSeriesList.size(), legendTexts.size()));
+            return false;
+        }
+
         for (int i = 0; i < highChartColumnSeriesList.size(); i++) {
-            this.dynLabelRepaymentHighChartLegends.setDynamicValue(i + 1);
-            final WebElement legendElement = this.dynLabelRepaymentHighChartLegends.getElement();
-            final WebElement rectElement = legendElement.findElement(By.cssSelector("rect"));
-            final WebElement textElement = legendElement.findElement(By.cssSelector("text"));
             final String columnValueName = highChartColumnSeriesList.get(i).getTooltipAttr().getAttrName();
             final Color columnColor = highChartColumnSeriesList.get(i).getColor();
-            final String legendName = textElement.getText();
-            final Color legendColor = CommonHelper.hex2Rgb(rectElement.getAttribute("fill"));
+            final String legendName = legendTexts.get(i).getText();
+            final Color legendColor = CommonHelper.hex2Rgb(legendSymbols.get(i).getAttribute("fill"));
             if (!columnValueName.equals(legendName)) {
                 log.info(String.format("Column name doesn't match legend. Column value: %s. Legends: %s",
                         columnValueName, legendName));
@@ -181,30 +435,52 @@ public class StatisticsPage extends BasePage {
     }
 
     public List<TooltipAttr> getIndustryChartData() {
+        final ChartExtractionEvent event = new ChartExtractionEvent();
+        final AtomicInteger retries = new AtomicInteger();
+        List<TooltipAttr> data = null;
+        event.begin();
+        try {
+            data = this.readIndustryChartData(openChartPoints(), retries);
+            return data;
+        } finally {
+            this.commitExtractionEvent(event, "industry", this.btnPiePieceInChart, data, retries.get());
+        }
+    }
+
+    private List<TooltipAttr> readIndustryChartData(final CsvSink chartPoints, final AtomicInteger retries) {
         final List<TooltipAttr> industryChartData = new ArrayList<>();
-        assert this.pieChart.waitForVisibility() : "Unable to find industry chart";
-        this.btnPiePieceInChart.waitForElementClickable();
-        for (final WebElement pieElement : this.btnPiePieceInChart.getElements()) {
-            ElementHelper.moveTo(pieElement);
-            WaitHelper.waitForElementAttributeToBe(pieElement, "class", "point-inactive", 1);
-            if (pieElement.getAttribute("class").contains("point-inactive")) {
-                try {
-                    //Unable to hover on item, try to click it
-                    pieElement.click();
-                } catch (final ElementClickInterceptedException e) {
-                    //Technical debt, explained in README
-                    log.warn("Can't select item because it's too small. Skip.");
-                    continue;
-                }
-                if (pieElement.getAttribute("class").contains("point-inactive")) {
-                    //Click didn't work either, skip this slice
-                    continue;
-                }
+        assert this.pieChart.isDisplayed() : "Unable to find industry chart";
+        if (this.chartDataSource != ChartDataSource.TOOLTIP) {
+            //chart model and harvest also get the slices which are too small to be hovered with the mouse
+            for (final TooltipAttr point : this.chartDataSource == ChartDataSource.CHART_MODEL
+                    ? HighChartHelper.getTooltipAttrs(HighChartHelper.PIE_SERIES_TYPES)
+                    : HighChartHelper.harvestTooltipAttrs(HighChartHelper.PIE_SERIES_TYPES)) {
+                industryChartData.add(this.collectPoint(chartPoints, "industry", point));
+            }
+            Collections.sort(industryChartData);
+            return industryChartData;
+        }
+        final List<WebElement> pieElements = this.btnPiePieceInChart.getElements();
+        //hover each slice at a pixel computed from its geometry, so the tiny slices are hovered at the first attempt
+        final List<Point> hoverOffsets = HighChartHelper.getHoverOffsets(pieElements);
+        String tooltipText = null;
+        for (int i = 0; i < pieElements.size(); i++) {
+            if (hoverOffsets.get(i) == null) {
+                //Technical debt, explained in README
+                log.warn("Can't hover slice {} because it's too small. Skip.", i);
+                continue;
+            }
+            ElementHelper.moveTo(pieElements.get(i), hoverOffsets.get(i));
+            final String newTooltipText = this.lblChartTooltip.waitForTextChange(tooltipText,
+                    Constants.LOW_TIMEOUT_IN_SECONDS);
+            if (newTooltipText == null) {
+                //the tooltip of the previous slice is still displayed, don't collect it twice
+                retries.incrementAndGet();
+                log.warn("Tooltip of slice {} wasn't displayed. Skip.", i);
+                continue;
             }
-            this.lblChartTooltip.waitForVisibility();
-            this.lblChartTooltip.waitForValueChanges(Constants.LOW_TIMEOUT_IN_SECONDS);
-            final String tooltipText = this.lblChartTooltip.getText();
-            industryChartData.add(new TooltipAttr(tooltipText));
+            tooltipText = newTooltipText;
+            industryChartData.add(this.collectPoint(chartPoints, "industry", new TooltipAttr(tooltipText)));
         }
         Collections.sort(industryChartData);
         return industryChartData;
@@ -215,7 +491,34 @@ public class StatisticsPage extends BasePage {
                 tooltipAttrList.stream().map(TooltipAttr::getTooltipName).sorted().collect(Collectors.toList());
         for (int i = 0; i < pieName.size() - 1; i++) {
             if (Objects.equals(pieName.get(i), pieName.get(i + 1))) {
-                log.info(String.format("Duplicate item %s at index %s", pieName.get(i + 1), i + 1));
+                log.info("Duplicate item {} at index {}", pieName.get(i + 1), i + 1);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check the hovered tooltips against the chart model: every hovered slice must be a slice of the model with the
+     * same value, the model can have more slices since the ones too small to hover are skipped
+     *
+     * @param hoveredData    data read with {@link ChartDataSource#TOOLTIP}
+     * @param chartModelData data read with {@link ChartDataSource#CHART_MODEL}
+     * @return True if the hovered tooltips are in the chart model, false otherwise
+     */
+    public boolean doesTooltipDataMatchChartModel(final List<TooltipAttr> hoveredData,
+                                                  final List<TooltipAttr> chartModelData) {
+        if (hoveredData.size() > chartModelData.size()) {
+            log.info("More hovered slices than in the chart model. Hovered: {}. Chart model: {}", hoveredData.size(),
+                    chartModelData.size());
+            return false;
+        }
+        final Set<String> modelSlices = chartModelData.stream()
+                .map(attr -> attr.getTooltipName().trim() + "=" + attr.getAttrValue()).collect(Collectors.toSet());
+        for (final TooltipAttr hovered : hoveredData) {
+            if (!modelSlices.contains(hovered.getTooltipName().trim() + "=" + hovered.getAttrValue())) {
+                log.info("Hovered slice {} with value {} is not in the chart model", hovered.getTooltipName(),
+                        hovered.getAttrValue());
                 return false;
             }
         }
@@ -1,24 +1,39 @@
 package com.fundingsocieties;
 
+import com.fundingsocieties.common.ChartDataMerger;
 import com.fundingsocieties.common.Constants;
+import com.fundingsocieties.common.CsvSink;
 import com.fundingsocieties.common.FileHelper;
+import com.fundingsocieties.common.RetryPolicy;
+import com.fundingsocieties.driver.CommandTimings;
 import com.fundingsocieties.driver.DriverUtils;
+import com.fundingsocieties.driver.TrafficArchive;
+import com.fundingsocieties.enums.BrowserProfile;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
 import org.testng.asserts.SoftAssert;
 
+import java.lang.reflect.Method;
+
 @Slf4j
 public class BaseTest {
     protected SoftAssert softAssert;
 
-    @Parameters({"browser"})
+    @Parameters({"browser", "profile"})
     @BeforeMethod(alwaysRun = true)
-    public void beforeMethod(final String browser) {
-        DriverUtils.startBrowser(browser);
-        DriverUtils.getDriver().manage().window().maximize();
+    public void beforeMethod(@Optional("chrome") final String browser, @Optional("default") final String profile,
+                             final Method method, final ITestResult result) {
+        DriverUtils.openSession(browser, BrowserProfile.fromName(profile));
+        CommandTimings.startTest(result.getMethod());
+        MDC.put("test", method.getName());
         this.softAssert = new SoftAssert();
     }
 
@@ -26,13 +41,42 @@ public class BaseTest {
     public void beforeSuite() {
         log.info("Create folder to collect data");
         FileHelper.createFolder(Constants.COLLECTED_DATA_FOLDER);
+        if (Constants.FORK_NUMBER != null) {
+            ChartDataMerger.beginFork(Constants.COLLECTED_DATA_FOLDER);
+        }
+    }
+
+    @Parameters({"browser", "profile"})
+    @BeforeTest(alwaysRun = true)
+    public void beforeTest(@Optional("chrome") final String browser, @Optional("default") final String profile) {
+        log.info("Start browser sessions");
+        DriverUtils.warmUpSessions(browser, BrowserProfile.fromName(profile));
     }
 
     @AfterMethod(alwaysRun = true)
-    public void afterMethod() {
-        if (DriverUtils.getDriver() != null) {
-            DriverUtils.getDriver().quit();
+    public void afterMethod(final ITestResult result) {
+        boolean failed = result.getStatus() == ITestResult.FAILURE;
+        try {
+            this.softAssert.assertAll();
+        } catch (final AssertionError e) {
+            failed = true;
+            throw e;
+        } finally {
+            CommandTimings.endTest();
+            MDC.remove("test");
+            DriverUtils.closeSession(failed);
+        }
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void afterSuite() {
+        DriverUtils.closeAllSessions();
+        TrafficArchive.save();
+        CsvSink.closeAll();
+        if (Constants.FORK_NUMBER != null) {
+            ChartDataMerger.completeFork(Constants.COLLECTED_DATA_FOLDER);
+            ChartDataMerger.merge(Constants.RUN_DATA_FOLDER);
         }
-        this.softAssert.assertAll();
+        RetryPolicy.writeStats();
     }
 }
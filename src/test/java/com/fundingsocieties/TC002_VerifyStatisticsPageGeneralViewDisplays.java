@@ -20,6 +20,10 @@ public class TC002_VerifyStatisticsPageGeneralViewDisplays extends BaseTest {
     
     @Test(testName = "TC002_VerifyStatisticsPageGeneralViewDisplays")
     public void tc002_VerifyStatisticsPageGeneralViewDisplays() {
+        log.info("Capture the data the charts are rendered from, if its URL is given and the browser supports it");
+        final boolean capturing = StatisticTab.GENERAL.isDataUrlPatternConfigured()
+                && this.statisticsPage.startChartDataCapture();
+
         log.info("Open funding societies homepage");
         this.homePage.open();
 
@@ -44,6 +48,15 @@ public class TC002_VerifyStatisticsPageGeneralViewDisplays extends BaseTest {
                 this.statisticsPage.getStatisticDetail(StatisticAttribute.NO_OF_FINANCING),
                 "Total approved doesn't match");
 
+        if (capturing) {
+            log.info("VP: the total approved in the tooltips equals to a series of the captured chart data");
+            this.softAssert.assertFalse(this.statisticsPage.getCapturedChartData(StatisticTab.GENERAL).isEmpty(),
+                    "No chart data captured, check -DchartDataUrl.general against the requests of the page");
+            this.softAssert.assertNotNull(
+                    this.statisticsPage.findCapturedSeries(StatisticTab.GENERAL, financingApprovedData),
+                    "Total approved doesn't match the captured chart data");
+        }
+
         log.info("Click on Amount disbursed button, collect all amount and store to file");
         this.statisticsPage.selectToggle(ChartToggle.AMOUNT_DISBURSED);
         final List<TooltipAttr> amountDisbursedData = this.statisticsPage.getFinancingChartData();
@@ -72,5 +85,6 @@ public class TC002_VerifyStatisticsPageGeneralViewDisplays extends BaseTest {
         this.softAssert.assertEquals(defaultRateData.get(defaultRateData.size() - 1).getAttrValue(),
                 this.statisticsPage.getStatisticDetail(StatisticAttribute.DEFAULT_RATE).replace("%", ""),
                 "Total approved doesn't match");
+        this.statisticsPage.stopChartDataCapture();
     }
 }
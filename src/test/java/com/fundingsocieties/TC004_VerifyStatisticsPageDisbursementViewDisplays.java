@@ -1,6 +1,7 @@
 package com.fundingsocieties;
 
 import com.fundingsocieties.common.Constants;
+import com.fundingsocieties.enums.ChartDataSource;
 import com.fundingsocieties.enums.StatisticTab;
 import com.fundingsocieties.enums.TopMenuItem;
 import com.fundingsocieties.model.TooltipAttr;
@@ -39,5 +40,18 @@ public class TC004_VerifyStatisticsPageDisbursementViewDisplays extends BaseTest
         log.info("VP: total percentage of all slice should be added up to 100%");
         this.softAssert.assertEquals(this.statisticsPage.getPieChartTotalPercentage(industryChartDataData), 100D,
                 "Total pie chart percentage is not correct");
+
+        log.info("Read all industry slices from the chart model");
+        this.statisticsPage.setChartDataSource(ChartDataSource.CHART_MODEL);
+        final List<TooltipAttr> industryChartModelData = this.statisticsPage.getIndustryChartData();
+        this.statisticsPage.setChartDataSource(ChartDataSource.TOOLTIP);
+
+        log.info("VP: the hovered tooltips are the slices of the chart model");
+        this.softAssert.assertTrue(this.statisticsPage.doesTooltipDataMatchChartModel(industryChartDataData,
+                industryChartModelData), "Hovered tooltips don't match the chart model");
+
+        log.info("VP: total percentage of all slices in the chart model should be added up to 100%");
+        this.softAssert.assertEquals(this.statisticsPage.getPieChartTotalPercentage(industryChartModelData), 100D,
+                "Total chart model percentage is not correct");
     }
 }
@@ -0,0 +1,206 @@
+package com.fundingsocieties.common;
+
+import com.fundingsocieties.enums.StatisticTab;
+import com.fundingsocieties.model.ChartDataPoint;
+import com.fundingsocieties.model.ChartDataset;
+import com.fundingsocieties.model.TooltipAttr;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Capture of the responses of a stand-in server with canned chart data, the browser being replaced by a plain HTTP
+ * client, so the matching and parsing are tested without a browser
+ */
+public class ChartDataCaptureTest {
+    private static final Map<String, String> CANNED_RESPONSES = new HashMap<>();
+
+    static {
+        CANNED_RESPONSES.put("/statistics", "statistics.html");
+        CANNED_RESPONSES.put("/api/statistics/general", "general.json");
+        CANNED_RESPONSES.put("/api/statistics/repayment", "repayment.json");
+        CANNED_RESPONSES.put("/api/statistics/disbursement", "truncated.json");
+    }
+
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeClass
+    public void beforeClass() throws Exception {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.createContext("/", ChartDataCaptureTest::respond);
+        this.server.start();
+        this.baseUrl = "http://127.0.0.1:" + this.server.getAddress().getPort();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void afterClass() {
+        this.server.stop(0);
+    }
+
+    @Test
+    public void testCapturesTheDataOfEachTab() {
+        final ChartDataCapture capture = newCapture();
+        final HttpHandler browser = capture.capture(ChartDataCaptureTest::load);
+        Assert.assertEquals(readBody(browser.execute(this.get("/statistics"))), readFixture("statistics.html"));
+        //the browser still gets the content the capture read
+        Assert.assertEquals(readBody(browser.execute(this.get("/api/statistics/general"))),
+                readFixture("general.json"));
+        browser.execute(this.get("/api/statistics/repayment"));
+
+        final List<ChartDataset> general = capture.getDatasets(StatisticTab.GENERAL);
+        Assert.assertEquals(general.size(), 1);
+        Assert.assertEquals(general.get(0).getUrl(), this.baseUrl + "/api/statistics/general");
+        Assert.assertEquals(general.get(0).getNames(), Arrays.asList("Q1 2021", "Q2 2021"));
+        Assert.assertEquals(general.get(0).getSeries(),
+                Arrays.asList("totalApproved", "amountDisbursed", "defaultRate"));
+        Assert.assertEquals(toText(general.get(0).getPoints()), Arrays.asList(
+                "Q1 2021 totalApproved 1234.0", "Q1 2021 amountDisbursed 5678901.5", "Q1 2021 defaultRate 1.23",
+                "Q2 2021 totalApproved 1300.0", "Q2 2021 amountDisbursed 6000000.0", "Q2 2021 defaultRate 1.2"));
+
+        final List<ChartDataset> repayment = capture.getDatasets(StatisticTab.REPAYMENT);
+        Assert.assertEquals(repayment.size(), 1);
+        Assert.assertEquals(toText(repayment.get(0).getPoints()),
+                Arrays.asList("Repaid value 80.5", "Outstanding value 19.5"));
+    }
+
+    @Test
+    public void testSkipsTheResponsesItCannotParse() {
+        final ChartDataCapture capture = newCapture();
+        final HttpHandler browser = capture.capture(ChartDataCaptureTest::load);
+        Assert.assertEquals(readBody(browser.execute(this.get("/api/statistics/disbursement"))),
+                readFixture("truncated.json"));
+        Assert.assertEquals(browser.execute(this.get("/api/statistics/industry")).getStatus(), 404);
+        Assert.assertTrue(capture.getDatasets(StatisticTab.DISBURSEMENT).isEmpty());
+    }
+
+    @Test
+    public void testWaitsForTheDataOfTheTab() {
+        final ChartDataCapture capture = newCapture();
+        final HttpHandler browser = capture.capture(ChartDataCaptureTest::load);
+        final CompletableFuture<HttpResponse> page = CompletableFuture.supplyAsync(() -> {
+            sleep(300);
+            return browser.execute(this.get("/api/statistics/general"));
+        });
+        Assert.assertEquals(capture.waitForDatasets(StatisticTab.GENERAL, 5).size(), 1);
+        page.join();
+        Assert.assertTrue(capture.waitForDatasets(StatisticTab.REPAYMENT, 1).isEmpty());
+    }
+
+    @Test
+    public void testFindsTheSeriesTheChartShows() {
+        final ChartDataCapture capture = newCapture();
+        capture.capture(ChartDataCaptureTest::load).execute(this.get("/api/statistics/general"));
+        final ChartDataset dataset = capture.getDatasets(StatisticTab.GENERAL).get(0);
+
+        Assert.assertEquals(dataset.findSeries(Arrays.asList(new TooltipAttr("Q1 2021● Total approved: 1,234"),
+                new TooltipAttr("Q2 2021● Total approved: 1,300"))), "totalApproved");
+        //values are compared to the decimals they are shown with
+        Assert.assertEquals(dataset.findSeries(Arrays.asList(new TooltipAttr("Q1 2021● Default rate: 1.2%"),
+                new TooltipAttr("Q2 2021● Default rate: 1.2%"))), "defaultRate");
+        Assert.assertNull(dataset.findSeries(Arrays.asList(new TooltipAttr("Q1 2021● Total approved: 1,235"),
+                new TooltipAttr("Q2 2021● Total approved: 1,300"))));
+        Assert.assertNull(dataset.findSeries(Arrays.asList(new TooltipAttr("Q2 2021● Total approved: 1,300"),
+                new TooltipAttr("Q1 2021● Total approved: 1,234"))));
+    }
+
+    private static ChartDataCapture newCapture() {
+        final Map<StatisticTab, Pattern> urlPatterns = new EnumMap<>(StatisticTab.class);
+        urlPatterns.put(StatisticTab.GENERAL, Pattern.compile(".*/api/statistics/general"));
+        urlPatterns.put(StatisticTab.REPAYMENT, Pattern.compile(".*/api/statistics/repayment"));
+        urlPatterns.put(StatisticTab.DISBURSEMENT, Pattern.compile(".*/api/statistics/(disbursement|industry)"));
+        return new ChartDataCapture(null, urlPatterns);
+    }
+
+    private HttpRequest get(final String path) {
+        return new HttpRequest(HttpMethod.GET, this.baseUrl + path);
+    }
+
+    private static List<String> toText(final List<ChartDataPoint> points) {
+        return points.stream().map(point -> point.getName() + " " + point.getSeries() + " " + point.getValue())
+                .collect(Collectors.toList());
+    }
+
+    @SneakyThrows
+    private static void respond(final HttpExchange exchange) {
+        final String fixture = CANNED_RESPONSES.get(exchange.getRequestURI().getPath());
+        final byte[] body = fixture == null ? "{\"error\": \"not found\"}".getBytes(StandardCharsets.UTF_8)
+                : readFixture(fixture).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", fixture != null && fixture.endsWith(".html")
+                ? "text/html; charset=UTF-8" : "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(fixture == null ? 404 : 200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * What the browser does with the request
+     */
+    @SneakyThrows
+    private static HttpResponse load(final HttpRequest request) {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(request.getUri()).openConnection();
+        try {
+            final int status = connection.getResponseCode();
+            try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                return new HttpResponse().setStatus(status)
+                        .setHeader("Content-Type", connection.getContentType())
+                        .setContent(Contents.bytes(readAll(in)));
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @SneakyThrows
+    private static String readFixture(final String name) {
+        try (InputStream in = ChartDataCaptureTest.class.getResourceAsStream("/chart-data/" + name)) {
+            return new String(readAll(in), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String readBody(final HttpResponse response) {
+        return new String(Contents.bytes(response.getContent()), StandardCharsets.UTF_8);
+    }
+
+    @SneakyThrows
+    private static byte[] readAll(final InputStream in) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    @SneakyThrows
+    private static void sleep(final long millis) {
+        Thread.sleep(millis);
+    }
+}
@@ -0,0 +1,150 @@
+package com.fundingsocieties.common;
+
+import com.opencsv.CSVReader;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+public class ChartDataMergerTest {
+    private File runFolder;
+
+    @BeforeMethod
+    public void beforeMethod() throws Exception {
+        this.runFolder = Files.createTempDirectory("run").toFile();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void afterMethod() throws Exception {
+        try (Stream<Path> files = Files.walk(this.runFolder.toPath())) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testMergeCsvUnionOfHeaders() throws Exception {
+        this.writeCsv(1, "amount.csv", new String[]{"Name", "Value"}, new String[]{"Q1", "1"});
+        this.writeCsv(2, "amount.csv", new String[]{"Name", "Extra", "Value"}, new String[]{"Q2", "x", "2"},
+                new String[]{"Q3", "y", "3"});
+        this.completeForks(1, 2);
+
+        ChartDataMerger.merge(this.runFolder.getPath());
+
+        Assert.assertEquals(readCsv(new File(this.runFolder, "amount.csv")), Arrays.asList(
+                Arrays.asList("Name", "Value", "Extra"),
+                Arrays.asList("Q1", "1", ""),
+                Arrays.asList("Q2", "2", "x"),
+                Arrays.asList("Q3", "3", "y")));
+    }
+
+    @Test
+    public void testMergeGzipCsv() throws Exception {
+        this.writeCsv(1, "points.csv.gz", new String[]{"Chart", "Value"}, new String[]{"a", "1"});
+        this.writeCsv(2, "points.csv.gz", new String[]{"Chart", "Value"}, new String[]{"b", "2"});
+        this.completeForks(1, 2);
+
+        ChartDataMerger.merge(this.runFolder.getPath());
+
+        Assert.assertEquals(readCsv(new File(this.runFolder, "points.csv.gz")), Arrays.asList(
+                Arrays.asList("Chart", "Value"), Arrays.asList("a", "1"), Arrays.asList("b", "2")));
+    }
+
+    @Test
+    public void testRunningForksAreSkipped() throws Exception {
+        this.writeCsv(1, "amount.csv", new String[]{"Name"}, new String[]{"Q1"});
+        this.writeCsv(2, "amount.csv", new String[]{"Name"}, new String[]{"Q2"});
+        this.completeForks(1);
+        ChartDataMerger.beginFork(this.getFork(2).getPath());
+
+        ChartDataMerger.merge(this.runFolder.getPath());
+        Assert.assertEquals(readCsv(new File(this.runFolder, "amount.csv")), Arrays.asList(
+                Collections.singletonList("Name"), Collections.singletonList("Q1")));
+
+        //the last fork to complete merges all of them
+        this.completeForks(2);
+        ChartDataMerger.merge(this.runFolder.getPath());
+        Assert.assertEquals(readCsv(new File(this.runFolder, "amount.csv")), Arrays.asList(
+                Collections.singletonList("Name"), Collections.singletonList("Q1"), Collections.singletonList("Q2")));
+    }
+
+    @Test
+    public void testMainMergesAllForks() throws Exception {
+        this.writeCsv(1, "amount.csv", new String[]{"Name"}, new String[]{"Q1"});
+        this.writeCsv(2, "amount.csv", new String[]{"Name"}, new String[]{"Q2"});
+
+        ChartDataMerger.main(new String[]{this.runFolder.getPath()});
+
+        Assert.assertEquals(readCsv(new File(this.runFolder, "amount.csv")).size(), 3);
+    }
+
+    @Test
+    public void testMergeColumnarSkipsMismatchedColumns() {
+        ColumnarFile.write(new File(this.getFork(1), "amount.fscol").getPath(),
+                ColumnarFile.Column.strings("Name", new String[]{"Q1", "Q2"}),
+                ColumnarFile.Column.doubles("Value", new double[]{1, 2}));
+        ColumnarFile.write(new File(this.getFork(2), "amount.fscol").getPath(),
+                ColumnarFile.Column.strings("Name", new String[]{"Q3"}),
+                ColumnarFile.Column.doubles("Value", new double[]{3}));
+        ColumnarFile.write(new File(this.getFork(3), "amount.fscol").getPath(),
+                ColumnarFile.Column.strings("Name", new String[]{"Q4"}),
+                ColumnarFile.Column.doubles("Other", new double[]{4}));
+        this.completeForks(1, 2, 3);
+
+        ChartDataMerger.merge(this.runFolder.getPath());
+
+        final ColumnarFile merged = ColumnarFile.open(new File(this.runFolder, "amount.fscol").getPath());
+        Assert.assertEquals(merged.getColumnNames(), Arrays.asList("Name", "Value"));
+        Assert.assertEquals(merged.getRowCount(), 3);
+        Assert.assertEquals(merged.getString("Name", 2), "Q3");
+        final double[] values = new double[3];
+        merged.getDoubleColumn("Value").get(values);
+        Assert.assertEquals(values, new double[]{1, 2, 3});
+    }
+
+    private File getFork(final int forkNumber) {
+        final File fork = new File(this.runFolder, "fork-" + forkNumber);
+        fork.mkdirs();
+        return fork;
+    }
+
+    private void completeForks(final int... forkNumbers) {
+        for (final int forkNumber : forkNumbers) {
+            ChartDataMerger.completeFork(this.getFork(forkNumber).getPath());
+        }
+    }
+
+    private void writeCsv(final int forkNumber, final String name, final String[] header, final String[]... rows) {
+        try (CsvSink sink = CsvSink.open(new File(this.getFork(forkNumber), name).getPath(), header, false, 0)) {
+            sink.writeRows(Arrays.asList(rows));
+        }
+    }
+
+    private static List<List<String>> readCsv(final File file) throws Exception {
+        InputStream in = new FileInputStream(file);
+        if (file.getName().endsWith(".gz")) {
+            in = new GZIPInputStream(in);
+        }
+        try (CSVReader reader = new CSVReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            final List<List<String>> lines = new ArrayList<>();
+            for (final String[] line : reader.readAll()) {
+                lines.add(Arrays.asList(line));
+            }
+            return lines;
+        }
+    }
+}
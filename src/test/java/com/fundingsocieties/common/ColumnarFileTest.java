@@ -0,0 +1,128 @@
+package com.fundingsocieties.common;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.DoubleBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+public class ColumnarFileTest {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final File file = createTempFile();
+        ColumnarFile.write(file.getPath(),
+                ColumnarFile.Column.strings("Name", new String[]{"Q1 2021", null, "Agriculture ● S$"}),
+                ColumnarFile.Column.doubles("Value", new double[]{1234.56, Double.NaN, -0.5}));
+
+        //every block starts at a multiple of 8 bytes
+        Assert.assertEquals(file.length() % 8, 0);
+        final ColumnarFile columnarFile = ColumnarFile.open(file.getPath());
+        Assert.assertEquals(columnarFile.getColumnNames(), Arrays.asList("Name", "Value"));
+        Assert.assertEquals(columnarFile.getRowCount(), 3);
+        Assert.assertFalse(columnarFile.isDoubleColumn("Name"));
+        Assert.assertTrue(columnarFile.isDoubleColumn("Value"));
+        Assert.assertEquals(columnarFile.getString("Name", 0), "Q1 2021");
+        Assert.assertEquals(columnarFile.getString("Name", 1), "");
+        Assert.assertEquals(columnarFile.getString("Name", 2), "Agriculture ● S$");
+        final DoubleBuffer values = columnarFile.getDoubleColumn("Value");
+        Assert.assertEquals(values.remaining(), 3);
+        Assert.assertEquals(values.get(0), 1234.56);
+        Assert.assertTrue(Double.isNaN(values.get(1)));
+        Assert.assertEquals(values.get(2), -0.5);
+    }
+
+    @Test
+    public void testEmptyColumns() throws Exception {
+        final File file = createTempFile();
+        ColumnarFile.write(file.getPath(), ColumnarFile.Column.strings("Name", new String[0]),
+                ColumnarFile.Column.doubles("Value", new double[0]));
+        final ColumnarFile columnarFile = ColumnarFile.open(file.getPath());
+        Assert.assertEquals(columnarFile.getRowCount(), 0);
+        Assert.assertEquals(columnarFile.getDoubleColumn("Value").remaining(), 0);
+    }
+
+    @Test
+    public void testOverwriteTruncatesTheFile() throws Exception {
+        final File file = createTempFile();
+        ColumnarFile.write(file.getPath(), ColumnarFile.Column.doubles("Value", new double[1000]));
+        ColumnarFile.write(file.getPath(), ColumnarFile.Column.doubles("Value", new double[]{1}));
+        final ColumnarFile columnarFile = ColumnarFile.open(file.getPath());
+        Assert.assertEquals(columnarFile.getRowCount(), 1);
+        Assert.assertEquals(file.length(), 40);
+    }
+
+    @Test
+    public void testColumnsOfDifferentSizesAreRejected() throws Exception {
+        final File file = createTempFile();
+        Assert.expectThrows(IllegalArgumentException.class, () -> ColumnarFile.write(file.getPath(),
+                ColumnarFile.Column.strings("Name", new String[]{"a", "b"}),
+                ColumnarFile.Column.doubles("Value", new double[]{1})));
+    }
+
+    @Test
+    public void testWrongColumnsAreRejected() throws Exception {
+        final File file = createTempFile();
+        ColumnarFile.write(file.getPath(), ColumnarFile.Column.strings("Name", new String[]{"a"}),
+                ColumnarFile.Column.doubles("Value", new double[]{1}));
+        final ColumnarFile columnarFile = ColumnarFile.open(file.getPath());
+        Assert.expectThrows(IllegalArgumentException.class, () -> columnarFile.getDoubleColumn("Name"));
+        Assert.expectThrows(IllegalArgumentException.class, () -> columnarFile.getString("Value", 0));
+        Assert.expectThrows(IllegalArgumentException.class, () -> columnarFile.getDoubleColumn("Missing"));
+    }
+
+    @Test
+    public void testOtherFilesAreRejected() throws Exception {
+        final File file = createTempFile();
+        Files.write(file.toPath(), "Name,Value\na,1\n".getBytes(StandardCharsets.UTF_8));
+        Assert.expectThrows(IllegalArgumentException.class, () -> ColumnarFile.open(file.getPath()));
+    }
+
+    @Test
+    public void testConcatWritesTheSameFileAsWrite() throws Exception {
+        //more rows than the copy buffer holds offsets for
+        final String[] names = new String[20000];
+        final double[] values = new double[names.length];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = i % 7 == 0 ? null : "Point ● " + i;
+            values[i] = i * 1.5;
+        }
+        final File first = createTempFile();
+        ColumnarFile.write(first.getPath(), ColumnarFile.Column.strings("Name", Arrays.copyOfRange(names, 0, 3)),
+                ColumnarFile.Column.doubles("Value", Arrays.copyOfRange(values, 0, 3)));
+        final File empty = createTempFile();
+        ColumnarFile.write(empty.getPath(), ColumnarFile.Column.strings("Name", new String[0]),
+                ColumnarFile.Column.doubles("Value", new double[0]));
+        final File last = createTempFile();
+        ColumnarFile.write(last.getPath(),
+                ColumnarFile.Column.strings("Name", Arrays.copyOfRange(names, 3, names.length)),
+                ColumnarFile.Column.doubles("Value", Arrays.copyOfRange(values, 3, names.length)));
+
+        final File concat = createTempFile();
+        ColumnarFile.concat(concat.getPath(), Arrays.asList(ColumnarFile.open(first.getPath()),
+                ColumnarFile.open(empty.getPath()), ColumnarFile.open(last.getPath())));
+        final File expected = createTempFile();
+        ColumnarFile.write(expected.getPath(), ColumnarFile.Column.strings("Name", names),
+                ColumnarFile.Column.doubles("Value", values));
+        Assert.assertEquals(Files.readAllBytes(concat.toPath()), Files.readAllBytes(expected.toPath()));
+    }
+
+    @Test
+    public void testConcatRejectsOtherColumns() throws Exception {
+        final File first = createTempFile();
+        ColumnarFile.write(first.getPath(), ColumnarFile.Column.doubles("Value", new double[]{1}));
+        final File other = createTempFile();
+        ColumnarFile.write(other.getPath(), ColumnarFile.Column.strings("Value", new String[]{"1"}));
+        Assert.expectThrows(IllegalArgumentException.class, () -> ColumnarFile.concat(createTempFile().getPath(),
+                Arrays.asList(ColumnarFile.open(first.getPath()), ColumnarFile.open(other.getPath()))));
+    }
+
+    private static File createTempFile() throws Exception {
+        final File file = File.createTempFile("chart", ColumnarFile.EXTENSION);
+        file.deleteOnExit();
+        return file;
+    }
+}
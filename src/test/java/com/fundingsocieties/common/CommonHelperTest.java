@@ -0,0 +1,25 @@
+package com.fundingsocieties.common;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Locale;
+
+public class CommonHelperTest {
+
+    @Test
+    public void testParseNumber() {
+        Assert.assertEquals(CommonHelper.parseNumber("1,234.56", Locale.US), 1234.56);
+        Assert.assertEquals(CommonHelper.parseNumber("S$1,234", Locale.US), 1234.0);
+        Assert.assertEquals(CommonHelper.parseNumber("-12.5%", Locale.US), -12.5);
+        Assert.assertEquals(CommonHelper.parseNumber("\u221212.5%", Locale.US), -12.5);
+        Assert.assertEquals(CommonHelper.parseNumber("1.234,56", Locale.GERMANY), 1234.56);
+        Assert.assertTrue(Double.isNaN(CommonHelper.parseNumber("n/a", Locale.US)));
+    }
+
+    @Test
+    public void testRepeatedDecimalSeparatorIsAGroupingSeparator() {
+        Assert.assertEquals(CommonHelper.parseNumber("1.234.567", Locale.US), 1234567.0);
+        Assert.assertEquals(CommonHelper.parseNumber("1,234,567", Locale.GERMANY), 1234567.0);
+    }
+}
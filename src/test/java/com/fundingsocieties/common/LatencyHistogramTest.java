@@ -0,0 +1,90 @@
+package com.fundingsocieties.common;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testEmptyHistogram() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(histogram.getCount(), 0);
+        Assert.assertEquals(histogram.getValueAtPercentile(99), 0);
+        Assert.assertEquals(histogram.getMaxNanos(), 0);
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 50; value++) {
+            histogram.record(value);
+        }
+        Assert.assertEquals(histogram.getCount(), 50);
+        Assert.assertEquals(histogram.getTotalNanos(), 50 * 51 / 2);
+        Assert.assertEquals(histogram.getValueAtPercentile(50), 25);
+        Assert.assertEquals(histogram.getValueAtPercentile(100), 50);
+    }
+
+    @Test
+    public void testPercentilesAreWithinBucketPrecision() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1_000);
+        }
+        for (final double percentile : new double[]{50, 90, 99, 99.9}) {
+            final double expected = percentile / 100 * 100_000 * 1_000;
+            final long actual = histogram.getValueAtPercentile(percentile);
+            Assert.assertTrue(actual >= expected && actual <= expected * 1.04,
+                    "p" + percentile + " is " + actual + ", expected about " + expected);
+        }
+        Assert.assertEquals(histogram.getValueAtPercentile(100), 100_000_000L);
+        Assert.assertEquals(histogram.getMaxNanos(), 100_000_000L);
+    }
+
+    @Test
+    public void testPercentileNeverExceedsMax() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000_001);
+        Assert.assertEquals(histogram.getValueAtPercentile(50), 1_000_001);
+    }
+
+    @Test
+    public void testNegativeAndHugeValues() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        Assert.assertEquals(histogram.getValueAtPercentile(50), 0);
+        Assert.assertEquals(histogram.getValueAtPercentile(100), Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                final long offset = thread * 10_000L;
+                futures.add(executor.submit(() -> {
+                    for (long value = 1; value <= 10_000; value++) {
+                        histogram.record(offset + value);
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(histogram.getCount(), 40_000);
+        Assert.assertEquals(histogram.getTotalNanos(), 40_000L * 40_001 / 2);
+        Assert.assertEquals(histogram.getMaxNanos(), 40_000);
+    }
+}
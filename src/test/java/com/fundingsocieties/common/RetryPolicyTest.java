@@ -0,0 +1,114 @@
+package com.fundingsocieties.common;
+
+import org.openqa.selenium.StaleElementReferenceException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RetryPolicyTest {
+    private static final RetryPolicy POLICY =
+            new RetryPolicy(StaleElementReferenceException.class, 4, 10_000, 1, 2);
+
+    @Test
+    public void testRetriesUntilSuccess() {
+        final AtomicInteger calls = new AtomicInteger();
+        final int retries = POLICY.run(() -> "id=success", "click", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new StaleElementReferenceException("stale");
+            }
+        });
+        Assert.assertEquals(calls.get(), 3);
+        Assert.assertEquals(retries, 2);
+    }
+
+    @Test
+    public void testStopsAtMaxAttemptsAndRethrowsLastException() {
+        final AtomicInteger calls = new AtomicInteger();
+        try {
+            POLICY.call(() -> "id=cap", "click", () -> {
+                throw new StaleElementReferenceException("attempt " + calls.incrementAndGet());
+            });
+            Assert.fail("The last exception must be rethrown");
+        } catch (final StaleElementReferenceException e) {
+            Assert.assertEquals(calls.get(), 4);
+            Assert.assertTrue(e.getMessage().startsWith("attempt 4"), e.getMessage());
+        }
+    }
+
+    @Test
+    public void testStopsAtTimeBudget() {
+        final RetryPolicy policy = new RetryPolicy(StaleElementReferenceException.class, Integer.MAX_VALUE, 200,
+                50, 50);
+        final AtomicInteger calls = new AtomicInteger();
+        final long start = System.nanoTime();
+        Assert.expectThrows(StaleElementReferenceException.class, () -> policy.run(() -> "id=budget", "click", () -> {
+            calls.incrementAndGet();
+            throw new StaleElementReferenceException("stale");
+        }));
+        final long elapsedInMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Assert.assertTrue(elapsedInMillis >= 200, "Gave up after " + elapsedInMillis + " ms");
+        Assert.assertTrue(elapsedInMillis < 2_000, "Gave up after " + elapsedInMillis + " ms");
+        Assert.assertTrue(calls.get() > 1, "Called " + calls.get() + " time(s)");
+    }
+
+    @Test
+    public void testDoesNotRetryOtherExceptions() {
+        final AtomicInteger calls = new AtomicInteger();
+        final IllegalStateException thrown = new IllegalStateException("not stale");
+        final IllegalStateException caught = Assert.expectThrows(IllegalStateException.class,
+                () -> POLICY.run(() -> "id=other", "click", () -> {
+                    calls.incrementAndGet();
+                    throw thrown;
+                }));
+        Assert.assertSame(caught, thrown);
+        Assert.assertEquals(calls.get(), 1);
+    }
+
+    @Test
+    public void testBackoffHasFullJitterUnderTheCap() {
+        final RetryPolicy policy = new RetryPolicy(StaleElementReferenceException.class, 10, 10_000, 10, 100);
+        for (int attempt = 1; attempt <= 8; attempt++) {
+            final long cap = Math.min(100, 10L << (attempt - 1));
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < 2_000; i++) {
+                final long backoff = policy.getBackoffInMillis(attempt);
+                Assert.assertTrue(backoff >= 0 && backoff <= cap, "Backoff " + backoff + " of attempt " + attempt);
+                min = Math.min(min, backoff);
+                max = Math.max(max, backoff);
+            }
+            //full jitter covers the whole range, not only the values around the exponential backoff
+            Assert.assertTrue(min <= cap / 4, "Lowest backoff " + min + " of attempt " + attempt);
+            Assert.assertTrue(max >= cap * 3 / 4, "Highest backoff " + max + " of attempt " + attempt);
+        }
+    }
+
+    @Test
+    public void testStatsCountRetriesAndGiveUps() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        POLICY.run(() -> "id=stats", "type", () -> {
+            if (calls.incrementAndGet() < 2) {
+                throw new StaleElementReferenceException("stale");
+            }
+        });
+        Assert.expectThrows(StaleElementReferenceException.class, () -> POLICY.run(() -> "id=stats", "type", () -> {
+            throw new StaleElementReferenceException("stale");
+        }));
+        RetryPolicy.record("id=stats", "type", 2, 0, false);
+
+        final File file = File.createTempFile("retry-stats", ".csv");
+        file.deleteOnExit();
+        RetryPolicy.writeStats(file.getPath());
+        final List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        Assert.assertEquals(lines.get(0), "\"Locator\",\"Action\",\"Retries\",\"Give ups\",\"Time lost (ms)\"");
+        //1 retry before the success, 3 before giving up and 2 recorded directly
+        Assert.assertTrue(lines.stream().anyMatch(line -> line.startsWith("\"id=stats\",\"type\",\"6\",\"1\",")),
+                String.join("\n", lines));
+    }
+}
@@ -0,0 +1,89 @@
+package com.fundingsocieties.controls;
+
+import org.openqa.selenium.By;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class LocatorCacheTest {
+
+    @Test
+    public void testParseLocatorTypes() {
+        assertLocator("css=div.chart > svg", "css", "div.chart > svg", By.cssSelector("div.chart > svg"), null);
+        assertLocator("id=chart", "id", "chart", By.id("chart"), "//*[@id='chart']");
+        assertLocator("class=tab", "class", "tab", By.className("tab"), "//*[@class='tab']");
+        assertLocator("link=Statistics", "link", "Statistics", By.linkText("Statistics"), "//a[text()='Statistics']");
+        assertLocator("text=Total", "text", "Total", By.xpath("//*[contains(text(), 'Total')]"),
+                "//*[contains(text(), 'Total')]");
+        assertLocator("name=q", "name", "q", By.name("q"), "//*[@name='q']");
+        assertLocator(" XPath = //div ", "xpath", "//div", By.xpath("//div"), "//div");
+    }
+
+    @Test
+    public void testXpathIsTheDefaultType() {
+        assertLocator("//div[@class='tab']", "xpath", "//div[@class='tab']", By.xpath("//div[@class='tab']"),
+                "//div[@class='tab']");
+        //"=" inside an xpath predicate isn't a type separator
+        assertLocator("//div[@id='a']", "xpath", "//div[@id='a']", By.xpath("//div[@id='a']"), "//div[@id='a']");
+    }
+
+    @Test
+    public void testUnsupportedType() {
+        Assert.expectThrows(RuntimeException.class, () -> ResolvedLocator.parse("tag=div"));
+    }
+
+    @Test
+    public void testCombine() {
+        final ResolvedLocator xpath = ResolvedLocator.combine(ResolvedLocator.parse("id=chart"),
+                ResolvedLocator.parse(".//span"));
+        Assert.assertEquals(xpath.getXpath(), "//*[@id='chart']//span");
+        Assert.assertEquals(xpath.getBy(), By.xpath("//*[@id='chart']//span"));
+
+        final ResolvedLocator css = ResolvedLocator.combine(ResolvedLocator.parse("css=div.chart"),
+                ResolvedLocator.parse("css=path"));
+        Assert.assertEquals(css.getBy(), By.cssSelector("div.chart path"));
+
+        Assert.expectThrows(RuntimeException.class, () -> ResolvedLocator.combine(
+                ResolvedLocator.parse("css=div"), ResolvedLocator.parse("//span")));
+    }
+
+    @Test
+    public void testResolvedLocatorsAreShared() {
+        final ResolvedLocator resolved = LocatorCache.resolve("id=shared");
+        Assert.assertSame(LocatorCache.resolve("id=shared"), resolved);
+        Assert.assertSame(LocatorCache.resolve("id=%s", "shared"), LocatorCache.resolve("id=%s", "shared"));
+        Assert.assertEquals(LocatorCache.resolve("id=%s", "shared").getBy(), resolved.getBy());
+        Assert.assertSame(LocatorCache.resolveFull("id=shared", ".//a"), LocatorCache.resolveFull("id=shared", ".//a"));
+    }
+
+    @Test
+    public void testFormatArgumentsAreKeys() {
+        final Object[] args = {"first"};
+        final ResolvedLocator first = LocatorCache.resolve("id=%s", args);
+        //the key is a copy of the arguments, changing the array afterwards doesn't change the cached entry
+        args[0] = "second";
+        Assert.assertEquals(first.getBody(), "first");
+        Assert.assertEquals(LocatorCache.resolve("id=%s", args).getBody(), "second");
+        Assert.assertEquals(LocatorCache.resolve("id=%s", "first").getBody(), "first");
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        final ResolvedLocator first = LocatorCache.resolve("id=bounded-0");
+        for (int i = 1; i <= 10_001; i++) {
+            LocatorCache.resolve("id=bounded-" + i);
+        }
+        //the least recently used entry was evicted, so it is parsed again
+        Assert.assertNotSame(LocatorCache.resolve("id=bounded-0"), first);
+        Assert.assertEquals(LocatorCache.resolve("id=bounded-0").getBy(), first.getBy());
+    }
+
+    private static void assertLocator(final String locator, final String type, final String body, final By by,
+                                      final String xpath) {
+        final ResolvedLocator resolved = ResolvedLocator.parse(locator);
+        Assert.assertEquals(resolved.getStringLocator(), locator);
+        Assert.assertEquals(resolved.getType(), type);
+        Assert.assertEquals(resolved.getBody(), body);
+        Assert.assertEquals(resolved.getBy(), by);
+        Assert.assertEquals(resolved.getXpath(), xpath);
+    }
+}
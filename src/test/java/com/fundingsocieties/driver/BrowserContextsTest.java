@@ -0,0 +1,280 @@
+package com.fundingsocieties.driver;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.chromium.HasCdp;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class BrowserContextsTest {
+    private static final String WAIT_FOR_SIGNAL = "waitForSignal";
+    private static final String SEND_SIGNAL = "sendSignal";
+    private static final String GET_WINDOW = "getWindow";
+    private static final String FAIL = "fail";
+    private static final String UNLOAD = "unload";
+
+    private FakeBrowser browser;
+    private BrowserContexts.Host host;
+    private ExecutorService executor;
+
+    @BeforeMethod
+    public void beforeMethod() {
+        this.browser = new FakeBrowser();
+        this.host = new BrowserContexts.Host("fake", this.browser);
+        this.executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void afterMethod() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testContextsRunWhileAnotherWaitsForAnAsyncScript() throws Exception {
+        final BrowserContexts.Context waiting = this.host.createContext();
+        final BrowserContexts.Context signalling = this.host.createContext();
+        final Future<Object> result = this.executor.submit(
+                () -> ((JavascriptExecutor) waiting.driver).executeAsyncScript(WAIT_FOR_SIGNAL));
+        Assert.assertTrue(this.browser.asyncScriptStarted.await(5, TimeUnit.SECONDS), "Async script not started");
+
+        //the browser would hold the session until the signal if the async script was sent as is, so the other
+        //context could only send the signal after the script timed out
+        final Future<Object> signal = this.executor.submit(() -> {
+            final String window = (String) ((JavascriptExecutor) signalling.driver).executeScript(GET_WINDOW);
+            ((JavascriptExecutor) signalling.driver).executeScript(SEND_SIGNAL);
+            return window;
+        });
+        Assert.assertEquals(signal.get(2, TimeUnit.SECONDS), signalling.driver.getWindowHandle());
+        //the result is read in the window of the waiting context, not in the window of the last command
+        Assert.assertEquals(result.get(2, TimeUnit.SECONDS), "signalled in " + waiting.driver.getWindowHandle());
+        Assert.assertFalse(this.browser.asyncScriptSentAsIs);
+    }
+
+    @Test
+    public void testAsyncScriptErrors() {
+        final BrowserContexts.Context context = this.host.createContext();
+        final JavascriptException error = Assert.expectThrows(JavascriptException.class,
+                () -> ((JavascriptExecutor) context.driver).executeAsyncScript(FAIL));
+        Assert.assertTrue(error.getMessage().startsWith("script failed"), error.getMessage());
+        Assert.expectThrows(JavascriptException.class,
+                () -> ((JavascriptExecutor) context.driver).executeAsyncScript(UNLOAD));
+    }
+
+    @Test
+    public void testContextsOnlySeeTheirWindows() {
+        final BrowserContexts.Context first = this.host.createContext();
+        final BrowserContexts.Context second = this.host.createContext();
+        final String firstWindow = first.driver.getWindowHandle();
+        final String secondWindow = second.driver.getWindowHandle();
+        Assert.assertNotEquals(firstWindow, secondWindow);
+        Assert.assertEquals(first.driver.getWindowHandles(), Collections.singleton(firstWindow));
+        Assert.assertEquals(second.driver.getWindowHandles(), Collections.singleton(secondWindow));
+
+        first.dispose();
+        Assert.assertFalse(this.browser.getWindowHandles().contains(firstWindow));
+        Assert.assertEquals(second.driver.getWindowHandles(), Collections.singleton(secondWindow));
+    }
+
+    /**
+     * Chromium browser with one window per target, running the scripts of the test by name
+     */
+    private static final class FakeBrowser implements WebDriver, JavascriptExecutor, HasCdp {
+        private static final String HOME = "home";
+        private final Map<String, String> windowContexts = new LinkedHashMap<>();
+        private final Map<String, Map<String, String>> asyncScripts = new HashMap<>();
+        private final CountDownLatch asyncScriptStarted = new CountDownLatch(1);
+        private final CountDownLatch signal = new CountDownLatch(1);
+        private volatile boolean asyncScriptSentAsIs;
+        private String currentWindow = HOME;
+        private int targets;
+
+        private FakeBrowser() {
+            this.windowContexts.put(HOME, "default");
+        }
+
+        @Override
+        public synchronized Object executeScript(final String script, final Object... args) {
+            final Map<String, String> windowScripts =
+                    this.asyncScripts.computeIfAbsent(this.currentWindow, window -> new HashMap<>());
+            if (script.startsWith(BrowserContexts.START_ASYNC_SCRIPT_PREFIX)) {
+                final String body = script.substring(BrowserContexts.START_ASYNC_SCRIPT_PREFIX.length(),
+                        script.length() - BrowserContexts.START_ASYNC_SCRIPT_SUFFIX.length());
+                if (UNLOAD.equals(body)) {
+                    this.asyncScripts.remove(this.currentWindow);
+                } else {
+                    windowScripts.put((String) args[0], body);
+                }
+                this.asyncScriptStarted.countDown();
+                return null;
+            } else if (BrowserContexts.POLL_ASYNC_SCRIPT.equals(script)) {
+                final String body = windowScripts.get((String) args[0]);
+                if (body == null) {
+                    return Arrays.asList("lost", null, null);
+                } else if (FAIL.equals(body)) {
+                    windowScripts.remove((String) args[0]);
+                    return Arrays.asList("error", null, "script failed");
+                } else if (this.signal.getCount() > 0) {
+                    return Arrays.asList("pending", null, null);
+                }
+                windowScripts.remove((String) args[0]);
+                return Arrays.asList("done", "signalled in " + this.currentWindow, null);
+            } else if (SEND_SIGNAL.equals(script)) {
+                this.signal.countDown();
+                return null;
+            } else if (GET_WINDOW.equals(script)) {
+                return this.currentWindow;
+            }
+            throw new JavascriptException("Unknown script: " + script);
+        }
+
+        /**
+         * Like a browser, the session is busy until the script calls back
+         */
+        @Override
+        public Object executeAsyncScript(final String script, final Object... args) {
+            this.asyncScriptSentAsIs = true;
+            this.asyncScriptStarted.countDown();
+            try {
+                if (!this.signal.await(5, TimeUnit.SECONDS)) {
+                    throw new ScriptTimeoutException("No signal");
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "signalled in " + this.currentWindow;
+        }
+
+        @Override
+        public synchronized Map<String, Object> executeCdpCommand(final String command,
+                                                                  final Map<String, Object> params) {
+            final Map<String, Object> result = new HashMap<>();
+            switch (command) {
+                case "Target.createBrowserContext":
+                    result.put("browserContextId", "context-" + this.windowContexts.size());
+                    break;
+                case "Target.createTarget":
+                    final String targetId = "TARGET" + ++this.targets;
+                    this.windowContexts.put(targetId, (String) params.get("browserContextId"));
+                    result.put("targetId", targetId);
+                    break;
+                case "Target.getTargets":
+                    final List<Map<String, Object>> targetInfos = new ArrayList<>();
+                    this.windowContexts.forEach((window, contextId) -> {
+                        final Map<String, Object> targetInfo = new HashMap<>();
+                        targetInfo.put("type", "page");
+                        targetInfo.put("targetId", window);
+                        targetInfo.put("browserContextId", contextId);
+                        targetInfos.add(targetInfo);
+                    });
+                    result.put("targetInfos", targetInfos);
+                    break;
+                case "Target.disposeBrowserContext":
+                    this.windowContexts.values().removeIf(
+                            contextId -> contextId.equals(params.get("browserContextId")));
+                    break;
+                default:
+                    throw new UnsupportedOperationException(command);
+            }
+            return result;
+        }
+
+        @Override
+        public synchronized Set<String> getWindowHandles() {
+            return new LinkedHashSet<>(this.windowContexts.keySet());
+        }
+
+        @Override
+        public synchronized String getWindowHandle() {
+            return this.currentWindow;
+        }
+
+        @Override
+        public TargetLocator switchTo() {
+            return (TargetLocator) Proxy.newProxyInstance(TargetLocator.class.getClassLoader(),
+                    new Class<?>[]{TargetLocator.class}, (proxy, method, args) -> {
+                        if (!"window".equals(method.getName())) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        synchronized (this) {
+                            this.currentWindow = (String) args[0];
+                        }
+                        return this;
+                    });
+        }
+
+        @Override
+        public Options manage() {
+            final Window window = (Window) Proxy.newProxyInstance(Window.class.getClassLoader(),
+                    new Class<?>[]{Window.class}, (proxy, method, args) -> new Dimension(1280, 800));
+            return (Options) Proxy.newProxyInstance(Options.class.getClassLoader(), new Class<?>[]{Options.class},
+                    (proxy, method, args) -> window);
+        }
+
+        @Override
+        public void get(final String url) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getCurrentUrl() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getTitle() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<WebElement> findElements(final By by) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public WebElement findElement(final By by) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getPageSource() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void quit() {
+        }
+
+        @Override
+        public Navigation navigate() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
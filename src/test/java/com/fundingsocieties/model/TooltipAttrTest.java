@@ -0,0 +1,53 @@
+package com.fundingsocieties.model;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Locale;
+
+public class TooltipAttrTest {
+
+    @DataProvider
+    public Object[][] tooltips() {
+        return new Object[][]{
+                {"Q1 2021● Amount disbursed: S$1,234.56", Locale.US, "Amount disbursed", "1,234.56", 1234.56},
+                {"Q1● Rate: -5.2%", Locale.US, "Rate", "-5.2", -5.2},
+                {"Q1● Rate: \u22125.2%", Locale.US, "Rate", "\u22125.2", -5.2},
+                {"Q1● Amount: S$ -1,000", Locale.US, "Amount", "-1,000", -1000},
+                {"Q1● Count: 1 234", Locale.US, "Count", "1 234", 1234},
+                {"Q1● Count: 1 234 567", Locale.US, "Count", "1 234 567", 1234567},
+                {"Q1● Count: 1.234.567", Locale.US, "Count", "1.234.567", 1234567},
+                {"Agriculture● Share: 12,5 %", Locale.GERMANY, "Share", "12,5", 12.5},
+                {"Q1● Amount: 1.234,56 €", Locale.GERMANY, "Amount", "1.234,56", 1234.56},
+                {"Q1● Amount: 1'234.5", Locale.US, "Amount", "1'234.5", 1234.5},
+                {"Q1● Amount: 1,234.", Locale.US, "Amount", "1,234", 1234},
+        };
+    }
+
+    @Test(dataProvider = "tooltips")
+    public void testParseTooltip(final String rawText, final Locale locale, final String attrName,
+                                 final String attrValue, final double number) {
+        final TooltipAttr tooltipAttr = new TooltipAttr(rawText, locale);
+        Assert.assertEquals(tooltipAttr.getTooltipName(), rawText.substring(0, rawText.indexOf('●')));
+        Assert.assertEquals(tooltipAttr.getAttrName(), attrName);
+        Assert.assertEquals(tooltipAttr.getAttrValue(), attrValue);
+        Assert.assertEquals(tooltipAttr.getValueAsNumber(), number, 1e-9);
+    }
+
+    @Test
+    public void testTextWithoutValue() {
+        final TooltipAttr tooltipAttr = new TooltipAttr("Loading...");
+        Assert.assertNull(tooltipAttr.getAttrValue());
+        Assert.assertTrue(Double.isNaN(tooltipAttr.getValueAsNumber()));
+    }
+
+    @Test
+    public void testCompareByValue() {
+        final TooltipAttr negative = new TooltipAttr("Q1● Rate: -5.2%");
+        final TooltipAttr positive = new TooltipAttr("Q2● Rate: 1 000%");
+        Assert.assertTrue(negative.compareTo(positive) < 0);
+        positive.setAttrValue("-10");
+        Assert.assertTrue(negative.compareTo(positive) > 0);
+    }
+}